@@ -0,0 +1,204 @@
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * AnomalyIndex contains the problems found in one channel's clocks while {@link MemberReport}s are calculated, so
+ * they can be looked up without calculating the reports again. Besides the reports of the '/times MM/dd/yy' command,
+ * the members a clock mentions are checked again whenever a clock is added, edited or deleted, so the index stays up
+ * to date for pay periods nobody has asked for. Values are as follows:<br>
+ * {@link #anomalies} = Each member's (by user id) {@link Anomaly}s by message id.
+ * <p>
+ * A clock only has one entry per member, with its types combined, so a clock found again by a later report replaces
+ * its entry instead of being listed twice. Access is synchronized since the index is shared between shards through
+ * {@link ClockStore}.
+ */
+class AnomalyIndex {
+
+    /**
+     * Type for clock ins without a clock out after them, or clock outs without a clock in before them.
+     */
+    static final byte MISSING_PAIR = 0x01;
+
+    /**
+     * Type for clocks that end in a meridiem but do not have a valid "XX:XX" time before it.
+     */
+    static final byte BAD_FORMAT = 0x02;
+
+    /**
+     * Type for clocks that do not end in " AM" or " PM".
+     */
+    static final byte NO_MERIDIEM = 0x04;
+
+    /**
+     * Each member's (by user id) {@link Anomaly}s by message id.
+     */
+    private final HashMap<String, HashMap<Long, Anomaly>> anomalies = new HashMap<>();
+
+    /**
+     * Replaces the anomalies of every clock in the {@link MemberReport} with the ones the report found. Clocks that
+     * no longer have any problem are removed.
+     *
+     * @param index The {@link ClockIndex} that contains the rows of the report.
+     * @param report The calculated {@link MemberReport}.
+     * @return Whether any clock's anomalies changed.
+     */
+    synchronized boolean addReport(ClockIndex index, MemberReport report) {
+        boolean changed = false;
+        HashMap<Long, Anomaly> memberAnomalies = anomalies.computeIfAbsent(report.getUserId(), k -> new HashMap<>());
+        for(int row : report.getClocks()) {
+            byte types = 0;
+            if(report.getSingleClocks().get(row))
+                types |= MISSING_PAIR;
+            if(report.getInvalidClocks().get(row))
+                types |= index.hasMeridiem(row) ? BAD_FORMAT : NO_MERIDIEM;
+
+            Anomaly previous;
+            if(types == 0)
+                previous = memberAnomalies.remove(index.getId(row));
+            else
+                previous = memberAnomalies.put(index.getId(row), new Anomaly(
+                        index.getId(row), index.getEpochMilli(row), index.getAuthorId(row), index.getContent(row), types
+                ));
+            if(previous == null ? types != 0 : previous.getTypes() != types)
+                changed = true;
+        }
+
+        if(memberAnomalies.isEmpty())
+            anomalies.remove(report.getUserId());
+        return changed;
+    } // End of addReport()
+
+    /**
+     * Removes the anomalies of a deleted or edited clock. An edited clock is checked again by
+     * {@link #addReport(ClockIndex, MemberReport)} once its new version is in the {@link ClockIndex}.
+     *
+     * @param messageId The id of the clock's message.
+     * @return Whether the clock had any anomalies.
+     */
+    synchronized boolean remove(String messageId) {
+        long id = Long.parseLong(messageId);
+        boolean removed = false;
+        for(Iterator<HashMap<Long, Anomaly>> it = anomalies.values().iterator(); it.hasNext(); ) {
+            HashMap<Long, Anomaly> memberAnomalies = it.next();
+            if(memberAnomalies.remove(id) != null) {
+                removed = true;
+                if(memberAnomalies.isEmpty())
+                    it.remove();
+            }
+        }
+        return removed;
+    } // End of remove()
+
+    /**
+     * @param userId The id of the member.
+     * @return The member's {@link Anomaly}s, oldest to newest.
+     */
+    synchronized List<Anomaly> getAnomalies(String userId) {
+        List<Anomaly> list = new ArrayList<>(anomalies.getOrDefault(userId, new HashMap<>()).values());
+        list.sort(Comparator.comparingLong(Anomaly::getMessageId));
+        return list;
+    } // End of getAnomalies()
+
+    /**
+     * @return The ids of the members that have anomalies.
+     */
+    synchronized List<String> getUserIds() {
+        List<String> userIds = new ArrayList<>();
+        for(Map.Entry<String, HashMap<Long, Anomaly>> entry : anomalies.entrySet())
+            if(!entry.getValue().isEmpty())
+                userIds.add(entry.getKey());
+        return userIds;
+    } // End of getUserIds()
+
+    /**
+     * Anomaly contains one clock and the problems found with it. It keeps the clock's values so it can be shown
+     * without the {@link ClockIndex} it was found in.
+     */
+    static class Anomaly {
+
+        /**
+         * The id of the clock's message.
+         */
+        private final long messageId;
+
+        /**
+         * The time the clock was sent in epoch milliseconds.
+         */
+        private final long epochMilli;
+
+        /**
+         * The user id of the clock's author.
+         */
+        private final String authorId;
+
+        /**
+         * The content of the clock.
+         */
+        private final String content;
+
+        /**
+         * The {@link #MISSING_PAIR}, {@link #BAD_FORMAT} and {@link #NO_MERIDIEM} types of the clock.
+         */
+        private final byte types;
+
+        /**
+         * Creates an {@link Anomaly}.
+         *
+         * @param messageId The id of the clock's message.
+         * @param epochMilli The time the clock was sent in epoch milliseconds.
+         * @param authorId The user id of the clock's author.
+         * @param content The content of the clock.
+         * @param types The types of the clock.
+         */
+        Anomaly(long messageId, long epochMilli, String authorId, String content, byte types) {
+            this.messageId = messageId;
+            this.epochMilli = epochMilli;
+            this.authorId = authorId;
+            this.content = content;
+            this.types = types;
+        }
+
+        /**
+         * @return The {@link #messageId} of the {@link Anomaly}.
+         */
+        long getMessageId() { return messageId; }
+
+        /**
+         * @return The {@link #epochMilli} of the {@link Anomaly}.
+         */
+        long getEpochMilli() { return epochMilli; }
+
+        /**
+         * @return The {@link #authorId} of the {@link Anomaly}.
+         */
+        String getAuthorId() { return authorId; }
+
+        /**
+         * @return The {@link #content} of the {@link Anomaly}.
+         */
+        String getContent() { return content; }
+
+        /**
+         * @return The {@link #types} of the {@link Anomaly}.
+         */
+        byte getTypes() { return types; }
+
+        /**
+         * @return The types of the {@link Anomaly} as text, for example "missing pair, no meridiem".
+         */
+        String getTypeNames() {
+            List<String> names = new ArrayList<>();
+            if((types & MISSING_PAIR) != 0)
+                names.add("missing pair");
+            if((types & BAD_FORMAT) != 0)
+                names.add("bad format");
+            if((types & NO_MERIDIEM) != 0)
+                names.add("no meridiem");
+            return String.join(", ", names);
+        } // End of getTypeNames()
+    }
+}
@@ -0,0 +1,700 @@
+import net.dv8tion.jda.core.entities.Message;
+import net.dv8tion.jda.core.entities.User;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * ClockIndex keeps a channel's messages as primitive columns, sorted per mentioned {@link User}, so that a date range
+ * can be looked up with a single binary search instead of filtering the whole channel history. A message is stored
+ * once as a row; each mentioned user only holds the row numbers of their messages. Values are as follows:<br>
+ * {@link #columns} = The message id, epoch minute, author, clock time, {@link DiscordClock} flags, and content of
+ * each row (see {@link Columns}).<br>
+ * {@link #userIds} = The user id of each user index.<br>
+ * {@link #userRows} = The rows that mention each user index, sorted by message id.<br>
+ * {@link #historyStart} = The id of the oldest message of the channel's history that was added.<br>
+ * {@link #newestId} = The id of the newest message that was added.
+ * <p>
+ * Discord message ids are snowflakes, which start with the creation time of the message, so sorting by id is the
+ * same as sorting by time and the bounds of a date range can be turned into ids with {@link #toSnowflake(long)}.
+ * Content and names are only turned back into {@link String}s when a row is rendered.
+ * <p>
+ * Changes and user lookups are synchronized since the index is shared between shards through {@link ClockStore}.
+ * The getters of a single row are not: a row's columns never change once it is added, and every add publishes them
+ * by writing the volatile {@link #columns} again, so the {@link MemberReport}s calculated in parallel read their
+ * rows without waiting on each other or on a channel history that is being loaded.
+ */
+class ClockIndex {
+
+    /**
+     * The Discord epoch (first second of 2015) in milliseconds; snowflake timestamps are relative to it.
+     */
+    private static final long DISCORD_EPOCH = 1420070400000L;
+
+    /**
+     * The amount of bits to the right of the timestamp within a snowflake.
+     */
+    private static final int TIMESTAMP_SHIFT = 22;
+
+    /**
+     * The amount of rows the columns start with.
+     */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * Flag set on rows that were deleted or replaced by an edit.
+     */
+    private static final byte DELETED = (byte) 0x80;
+
+    /**
+     * The amount of rows in the columns.
+     */
+    private int rowCount = 0;
+
+    /**
+     * The columns of every row. Replaced by a larger copy when they are full; written again after every add so the
+     * new row is visible to the unsynchronized getters.
+     */
+    private volatile Columns columns = new Columns(INITIAL_CAPACITY, INITIAL_CAPACITY * 32);
+
+    /**
+     * The amount of bytes used in the content of the {@link #columns}.
+     */
+    private int contentSize = 0;
+
+    /**
+     * The user id of each user index. Copied on write, so rows can be rendered without locking.
+     */
+    private List<String> userIds = new CopyOnWriteArrayList<>();
+
+    /**
+     * The user index of each user id.
+     */
+    private HashMap<String, Integer> userIndexes = new HashMap<>();
+
+    /**
+     * The rows that mention each user index, sorted by message id.
+     */
+    private int[][] userRows = new int[0][];
+
+    /**
+     * The amount of rows in each of {@link #userRows}.
+     */
+    private int[] userRowCounts = new int[0];
+
+    /**
+     * Whether the channel's history has already been added to the index.
+     */
+    private boolean loaded = false;
+
+    /**
+     * The id of the oldest message of the channel's history that was added, or 0 if the whole history was added.
+     */
+    private long historyStart = Long.MAX_VALUE;
+
+    /**
+     * The id of the newest message that was added, or 0 if no message was added.
+     */
+    private long newestId = 0;
+
+    /**
+     * Adds the passed in {@link Message} as a row to the index of every {@link User} it mentions.
+     *
+     * @param message The {@link Message} to add.
+     */
+    synchronized void add(Message message) {
+        if(message.getMentionedUsers().isEmpty())
+            return;
+
+        List<String> mentionedUserIds = new ArrayList<>();
+        for(User user : message.getMentionedUsers())
+            mentionedUserIds.add(user.getId());
+        add(Long.parseLong(message.getId()), message.getAuthor().getId(), message.getContent(), mentionedUserIds);
+    } // End of add()
+
+    /**
+     * Adds a message that is not a {@link Message} (such as one read from a file) as a row to the index of every
+     * user it mentions.
+     *
+     * @param id The message id.
+     * @param authorId The user id of the message's author.
+     * @param content The content of the message.
+     * @param mentionedUserIds The user ids of the users the message mentions.
+     * @return The row of the message.
+     */
+    synchronized int add(long id, String authorId, String content, List<String> mentionedUserIds) {
+        int row = addRow(id, authorId, content);
+        for(String userId : mentionedUserIds)
+            addUserRow(getUserIndex(userId), row);
+        return row;
+    } // End of add()
+
+    /**
+     * Adds all of the passed in {@link Message}s to the index and marks it as {@link #loaded}. The messages are sorted
+     * oldest to newest first so that every row is appended to the end of the users' rows.
+     *
+     * @param messages The {@link Message}s of the channel's history to add.
+     * @param completeHistory Whether the messages are the channel's whole history.
+     */
+    synchronized void addAll(List<Message> messages, boolean completeHistory) {
+        List<Message> sorted = new ArrayList<>(messages);
+        sorted.sort(Comparator.comparingLong(m -> Long.parseLong(m.getId())));
+        for(Message m : sorted)
+            add(m);
+        if(completeHistory)
+            historyStart = 0;
+        else if(!sorted.isEmpty())
+            historyStart = Math.min(historyStart, Long.parseLong(sorted.get(0).getId()));
+        loaded = true;
+    } // End of addAll()
+
+    /**
+     * Adds the messages sent since a restored index was snapshotted (see {@link #readSnapshot(ByteBuffer)}) and marks
+     * it as {@link #loaded}. If the messages do not reach back to the newest restored row, messages are missing in
+     * between, so the restored rows are dropped and the messages are added as the channel's history instead.
+     *
+     * @param messages The newest {@link Message}s of the channel's history.
+     * @param reachedNewest Whether the messages reach back to {@link #newestId}.
+     */
+    synchronized void catchUp(List<Message> messages, boolean reachedNewest) {
+        if(!reachedNewest) {
+            clear();
+            addAll(messages, false);
+            return;
+        }
+
+        long restoredNewestId = newestId;
+        List<Message> newer = new ArrayList<>();
+        for(Message m : messages)
+            if(Long.parseLong(m.getId()) > restoredNewestId)
+                newer.add(m);
+        addAll(newer, false);
+    } // End of catchUp()
+
+    /**
+     * Removes the {@link Message} with the passed in id from every {@link User}'s index. The row is only flagged as
+     * {@link #DELETED}, since reports being calculated may still hold it; it is left out of the next snapshot (see
+     * {@link #writeSnapshot(DataOutputStream)}).
+     *
+     * @param messageId The id of the {@link Message} to remove.
+     * @return Whether the {@link Message} was in the index.
+     */
+    synchronized boolean remove(String messageId) {
+        long id = Long.parseLong(messageId);
+        boolean removed = false;
+        Columns c = columns;
+        for(int user = 0; user < userRowCounts.length; user++) {
+            int position = lowerBound(user, id);
+            if(position < userRowCounts[user] && c.ids[userRows[user][position]] == id) {
+                c.flags[userRows[user][position]] |= DELETED;
+                System.arraycopy(
+                        userRows[user], position + 1, userRows[user], position, userRowCounts[user] - position - 1
+                );
+                userRowCounts[user]--;
+                removed = true;
+            }
+        }
+        return removed;
+    } // End of remove()
+
+    /**
+     * Checks if the message is in the index of the passed in user and has not been removed.
+     *
+     * @param id The message id.
+     * @param userId The id of a user the message mentions.
+     * @return Whether the message is in the user's index.
+     */
+    synchronized boolean contains(long id, String userId) {
+        Integer user = userIndexes.get(userId);
+        if(user == null)
+            return false;
+        int position = lowerBound(user, id);
+        return position < userRowCounts[user] && columns.ids[userRows[user][position]] == id;
+    } // End of contains()
+
+    /**
+     * @param id The message id.
+     * @return The ids of the users whose index contains the message.
+     */
+    synchronized List<String> getMentionedUserIds(long id) {
+        List<String> mentionedUserIds = new ArrayList<>();
+        for(String userId : userIds)
+            if(contains(id, userId))
+                mentionedUserIds.add(userId);
+        return mentionedUserIds;
+    } // End of getMentionedUserIds()
+
+    /**
+     * Gets the rows that mention the passed in user and were sent between the start and end dates (inclusive) in the
+     * passed in timezone.
+     *
+     * @param userId The id of the {@link User} who's rows are being pulled.
+     * @param startDate The first day of the range.
+     * @param endDate The last day of the range.
+     * @param timeZone The timezone the days are in.
+     * @return The rows between the dates from oldest to newest.
+     */
+    synchronized int[] getClocks(String userId, LocalDate startDate, LocalDate endDate, ZoneId timeZone) {
+        Integer user = userIndexes.get(userId);
+        if(user == null)
+            return new int[0];
+
+        long min = toSnowflake(startDate.atStartOfDay(timeZone).toInstant().toEpochMilli());
+        long max = toSnowflake(endDate.plusDays(1).atStartOfDay(timeZone).toInstant().toEpochMilli());
+
+        return Arrays.copyOfRange(userRows[user], lowerBound(user, min), lowerBound(user, max));
+    } // End of getClocks()
+
+    /**
+     * @param row The row.
+     * @return The message id of the row.
+     */
+    long getId(int row) { return columns.ids[row]; }
+
+    /**
+     * @param row The row.
+     * @return The epoch minute the row was sent at.
+     */
+    int getMinute(int row) { return columns.minutes[row]; }
+
+    /**
+     * @param row The row.
+     * @return The epoch milliseconds the row was sent at (taken from its message id).
+     */
+    long getEpochMilli(int row) { return toEpochMilli(columns.ids[row]); }
+
+    /**
+     * @param row The row.
+     * @return The user id of the row's author.
+     */
+    String getAuthorId(int row) { return userIds.get(columns.authors[row]); }
+
+    /**
+     * @param row The row.
+     * @return The clock time of the row in quarter hours or {@link DiscordClock#INVALID_TIME}.
+     */
+    int getTime(int row) { return columns.times[row]; }
+
+    /**
+     * @param row The row.
+     * @return Whether the row contains a clock in (true) or clock out (false) key word.
+     */
+    boolean isClockIn(int row) { return (columns.flags[row] & DiscordClock.CLOCK_IN) != 0; }
+
+    /**
+     * @param row The row.
+     * @return Whether the row contains any clock in or out key word.
+     */
+    boolean hasClockWords(int row) { return (columns.flags[row] & DiscordClock.CLOCK_WORDS) != 0; }
+
+    /**
+     * @param row The row.
+     * @return Whether the row's content ends with a meridiem.
+     */
+    boolean hasMeridiem(int row) { return (columns.flags[row] & DiscordClock.MERIDIEM) != 0; }
+
+    /**
+     * @param row The row.
+     * @return The content of the row.
+     */
+    String getContent(int row) {
+        Columns c = columns;
+        return new String(c.contents, c.contentStarts[row], c.contentLengths[row], StandardCharsets.UTF_8);
+    } // End of getContent()
+
+    /**
+     * @return Whether the channel's history has already been added to the index.
+     */
+    synchronized boolean isLoaded() { return loaded; }
+
+    /**
+     * @return Whether the index was restored from a snapshot and has not caught up with the channel yet.
+     */
+    synchronized boolean isRestored() { return !loaded && rowCount > 0; }
+
+    /**
+     * @return The {@link #newestId} of the {@link ClockIndex}.
+     */
+    synchronized long getNewestId() { return newestId; }
+
+    /**
+     * @return A copy of the user ids that have clocks or authored messages in the index.
+     */
+    synchronized List<String> getUserIds() { return new ArrayList<>(userIds); }
+
+    /**
+     * Checks if the added history reaches back to the start of the passed in day, meaning no clocks of that day or
+     * later are missing from the index.
+     *
+     * @param date The day to check.
+     * @param timeZone The timezone the day is in.
+     * @return Whether the index contains every message since the start of the day.
+     */
+    synchronized boolean hasHistorySince(LocalDate date, ZoneId timeZone) {
+        return historyStart <= toSnowflake(date.atStartOfDay(timeZone).toInstant().toEpochMilli());
+    } // End of hasHistorySince()
+
+    /**
+     * Writes the columns to a snapshot. Arrays are written as their length followed by their values, so
+     * {@link #readSnapshot(ByteBuffer)} can copy each of them out in bulk. The snapshot is compacted: {@link #DELETED}
+     * rows and their content are left out and the remaining rows are numbered again, so removed clocks do not grow
+     * the snapshot (or the index restored from it).
+     *
+     * @param out The stream to write to.
+     * @throws IOException If the snapshot could not be written.
+     */
+    synchronized void writeSnapshot(DataOutputStream out) throws IOException {
+        Columns c = columns;
+        int[] liveRows = new int[rowCount];
+        int[] newRows = new int[rowCount];
+        int liveCount = 0;
+        int liveContentSize = 0;
+        for(int row = 0; row < rowCount; row++) {
+            if((c.flags[row] & DELETED) != 0)
+                continue;
+            newRows[row] = liveCount;
+            liveRows[liveCount++] = row;
+            liveContentSize += c.contentLengths[row];
+        }
+
+        out.writeLong(historyStart);
+        out.writeLong(newestId);
+
+        out.writeInt(liveCount);
+        for(int i = 0; i < liveCount; i++)
+            out.writeLong(c.ids[liveRows[i]]);
+        for(int i = 0; i < liveCount; i++)
+            out.writeInt(c.minutes[liveRows[i]]);
+        for(int i = 0; i < liveCount; i++)
+            out.writeInt(c.authors[liveRows[i]]);
+        for(int i = 0; i < liveCount; i++)
+            out.writeShort(c.times[liveRows[i]]);
+        for(int i = 0; i < liveCount; i++)
+            out.writeByte(c.flags[liveRows[i]]);
+        int contentStart = 0;
+        for(int i = 0; i < liveCount; i++) {
+            out.writeInt(contentStart);
+            contentStart += c.contentLengths[liveRows[i]];
+        }
+        for(int i = 0; i < liveCount; i++)
+            out.writeInt(c.contentLengths[liveRows[i]]);
+        out.writeInt(liveContentSize);
+        for(int i = 0; i < liveCount; i++)
+            out.write(c.contents, c.contentStarts[liveRows[i]], c.contentLengths[liveRows[i]]);
+
+        out.writeInt(userIds.size());
+        for(int user = 0; user < userIds.size(); user++) {
+            out.writeUTF(userIds.get(user));
+            out.writeInt(userRowCounts[user]);
+            for(int position = 0; position < userRowCounts[user]; position++)
+                out.writeInt(newRows[userRows[user][position]]);
+        }
+    } // End of writeSnapshot()
+
+    /**
+     * Reads an index written by {@link #writeSnapshot(DataOutputStream)}. The index is not {@link #loaded}; messages
+     * sent since the snapshot are added with {@link #catchUp(List, boolean)}.
+     *
+     * @param in The (memory mapped) snapshot, positioned at the index.
+     * @return The restored {@link ClockIndex}.
+     */
+    static ClockIndex readSnapshot(ByteBuffer in) {
+        ClockIndex index = new ClockIndex();
+        index.historyStart = in.getLong();
+        index.newestId = in.getLong();
+
+        int rows = in.getInt();
+        int capacity = Math.max(INITIAL_CAPACITY, rows);
+        index.rowCount = rows;
+        long[] ids = new long[capacity];
+        in.asLongBuffer().get(ids, 0, rows);
+        in.position(in.position() + rows * Long.BYTES);
+        int[] minutes = readInts(in, rows, capacity);
+        int[] authors = readInts(in, rows, capacity);
+        short[] times = new short[capacity];
+        in.asShortBuffer().get(times, 0, rows);
+        in.position(in.position() + rows * Short.BYTES);
+        byte[] flags = new byte[capacity];
+        in.get(flags, 0, rows);
+        int[] contentStarts = readInts(in, rows, capacity);
+        int[] contentLengths = readInts(in, rows, capacity);
+        index.contentSize = in.getInt();
+        byte[] contents = new byte[Math.max(INITIAL_CAPACITY * 32, index.contentSize)];
+        in.get(contents, 0, index.contentSize);
+        index.columns = new Columns(ids, minutes, authors, times, flags, contentStarts, contentLengths, contents);
+
+        int users = in.getInt();
+        List<String> userIds = new ArrayList<>();
+        index.userRows = new int[users][];
+        index.userRowCounts = new int[users];
+        for(int user = 0; user < users; user++) {
+            byte[] userId = new byte[in.getShort() & 0xFFFF];
+            in.get(userId);
+            userIds.add(new String(userId, StandardCharsets.UTF_8));
+            index.userIndexes.put(userIds.get(user), user);
+            index.userRowCounts[user] = in.getInt();
+            index.userRows[user] = readInts(in, index.userRowCounts[user], index.userRowCounts[user]);
+        }
+        index.userIds.addAll(userIds);
+
+        return index;
+    } // End of readSnapshot()
+
+    /**
+     * Copies ints out of the buffer in bulk.
+     *
+     * @param in The buffer to read from.
+     * @param count The amount of ints to read.
+     * @param capacity The length of the returned array, at least the count.
+     * @return The ints that were read.
+     */
+    private static int[] readInts(ByteBuffer in, int count, int capacity) {
+        int[] values = new int[capacity];
+        in.asIntBuffer().get(values, 0, count);
+        in.position(in.position() + count * Integer.BYTES);
+        return values;
+    } // End of readInts()
+
+    /**
+     * Drops every row from the users' indexes, so the index is empty again. The rows themselves are only flagged as
+     * {@link #DELETED} and new rows are appended after them, since reports being calculated may still read them
+     * without a lock; they are left out of the next snapshot. The users' row lists are allocated again instead of
+     * being emptied in place.
+     */
+    private void clear() {
+        Columns c = columns;
+        for(int row = 0; row < rowCount; row++)
+            c.flags[row] |= DELETED;
+        userRows = new int[userIds.size()][0];
+        userRowCounts = new int[userIds.size()];
+        loaded = false;
+        historyStart = Long.MAX_VALUE;
+        newestId = 0;
+    } // End of clear()
+
+    /**
+     * Appends a message to the columns.
+     *
+     * @param id The message id.
+     * @param authorId The user id of the message's author.
+     * @param content The content of the message.
+     * @return The row of the message.
+     */
+    private int addRow(long id, String authorId, String content) {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        Columns c = columns;
+        if(rowCount == c.ids.length || contentSize + bytes.length > c.contents.length)
+            c = c.grow(rowCount + 1, contentSize + bytes.length);
+        System.arraycopy(bytes, 0, c.contents, contentSize, bytes.length);
+
+        int row = rowCount++;
+        newestId = Math.max(newestId, id);
+        c.ids[row] = id;
+        c.minutes[row] = (int) (toEpochMilli(id) / 60000);
+        c.authors[row] = getUserIndex(authorId);
+        c.times[row] = (short) DiscordClock.parseTime(content);
+        c.flags[row] = DiscordClock.getFlags(content);
+        c.contentStarts[row] = contentSize;
+        c.contentLengths[row] = bytes.length;
+        contentSize += bytes.length;
+
+        columns = c; // Publishes the row to the unsynchronized getters.
+        return row;
+    } // End of addRow()
+
+    /**
+     * Inserts the row into the user's rows, keeping them sorted by message id. Rows are almost always newer than the
+     * user's last row, so this is usually an append.
+     *
+     * @param user The user index.
+     * @param row The row to insert.
+     */
+    private void addUserRow(int user, int row) {
+        int count = userRowCounts[user];
+        if(count == userRows[user].length)
+            userRows[user] = Arrays.copyOf(userRows[user], Math.max(8, count * 2));
+
+        long[] ids = columns.ids;
+        int position = count;
+        if(count > 0 && ids[userRows[user][count - 1]] > ids[row])
+            position = lowerBound(user, ids[row]);
+
+        System.arraycopy(userRows[user], position, userRows[user], position + 1, count - position);
+        userRows[user][position] = row;
+        userRowCounts[user]++;
+    } // End of addUserRow()
+
+    /**
+     * Binary searches the user's rows for the first row with a message id that is not less than the passed in id.
+     *
+     * @param user The user index.
+     * @param id The message id to search for.
+     * @return The position of the first row with an id of at least the passed in id.
+     */
+    private int lowerBound(int user, long id) {
+        long[] ids = columns.ids;
+        int low = 0;
+        int high = userRowCounts[user];
+        while(low < high) {
+            int middle = (low + high) >>> 1;
+            if(ids[userRows[user][middle]] < id)
+                low = middle + 1;
+            else
+                high = middle;
+        }
+        return low;
+    } // End of lowerBound()
+
+    /**
+     * Gets the user index of the passed in user id, adding the user if they are new.
+     *
+     * @param userId The id of the user.
+     * @return The user index.
+     */
+    private int getUserIndex(String userId) {
+        Integer user = userIndexes.get(userId);
+        if(user != null)
+            return user;
+
+        user = userIds.size();
+        userIds.add(userId);
+        userIndexes.put(userId, user);
+        userRows = Arrays.copyOf(userRows, user + 1);
+        userRows[user] = new int[0];
+        userRowCounts = Arrays.copyOf(userRowCounts, user + 1);
+        return user;
+    } // End of getUserIndex()
+
+    /**
+     * Converts epoch milliseconds into the smallest snowflake that could have been created at that time.
+     *
+     * @param epochMilli The time in epoch milliseconds.
+     * @return The smallest snowflake for the time.
+     */
+    static long toSnowflake(long epochMilli) {
+        return (epochMilli - DISCORD_EPOCH) << TIMESTAMP_SHIFT;
+    } // End of toSnowflake()
+
+    /**
+     * Converts a Discord snowflake (message id) to the milliseconds since the epoch it was created at.
+     *
+     * @param snowflake The snowflake.
+     * @return The milliseconds since the epoch.
+     */
+    static long toEpochMilli(long snowflake) {
+        return (snowflake >>> TIMESTAMP_SHIFT) + DISCORD_EPOCH;
+    } // End of toEpochMilli()
+
+    /**
+     * Columns contains the column arrays of a {@link ClockIndex}. The arrays are never replaced; a full Columns is
+     * copied into a larger one by {@link #grow(int, int)}, so a reader always sees a complete set of columns.
+     */
+    private static class Columns {
+
+        /**
+         * The message id of each row.
+         */
+        private final long[] ids;
+
+        /**
+         * The epoch minute each row was sent at.
+         */
+        private final int[] minutes;
+
+        /**
+         * The user index of each row's author.
+         */
+        private final int[] authors;
+
+        /**
+         * The clock time of each row in quarter hours (see {@link DiscordClock#parseTime(String)}).
+         */
+        private final short[] times;
+
+        /**
+         * The {@link DiscordClock} flags of each row.
+         */
+        private final byte[] flags;
+
+        /**
+         * Where each row's content starts in {@link #contents}.
+         */
+        private final int[] contentStarts;
+
+        /**
+         * The length of each row's content in {@link #contents}.
+         */
+        private final int[] contentLengths;
+
+        /**
+         * The UTF-8 content of every row.
+         */
+        private final byte[] contents;
+
+        /**
+         * Creates empty {@link Columns}.
+         *
+         * @param rows The amount of rows the columns can hold.
+         * @param contentBytes The amount of content bytes the columns can hold.
+         */
+        Columns(int rows, int contentBytes) {
+            this(new long[rows], new int[rows], new int[rows], new short[rows], new byte[rows], new int[rows],
+                    new int[rows], new byte[contentBytes]);
+        }
+
+        /**
+         * Creates {@link Columns} of the passed in arrays.
+         *
+         * @param ids The message id of each row.
+         * @param minutes The epoch minute each row was sent at.
+         * @param authors The user index of each row's author.
+         * @param times The clock time of each row in quarter hours.
+         * @param flags The {@link DiscordClock} flags of each row.
+         * @param contentStarts Where each row's content starts in the contents.
+         * @param contentLengths The length of each row's content in the contents.
+         * @param contents The UTF-8 content of every row.
+         */
+        Columns(
+                long[] ids, int[] minutes, int[] authors, short[] times, byte[] flags, int[] contentStarts,
+                int[] contentLengths, byte[] contents
+        ) {
+            this.ids = ids;
+            this.minutes = minutes;
+            this.authors = authors;
+            this.times = times;
+            this.flags = flags;
+            this.contentStarts = contentStarts;
+            this.contentLengths = contentLengths;
+            this.contents = contents;
+        }
+
+        /**
+         * Copies the columns into larger ones, doubling whatever is too small.
+         *
+         * @param rows The amount of rows the columns need to hold.
+         * @param contentBytes The amount of content bytes the columns need to hold.
+         * @return The larger {@link Columns}.
+         */
+        Columns grow(int rows, int contentBytes) {
+            int capacity = rows > ids.length ? ids.length * 2 : ids.length;
+            return new Columns(
+                    Arrays.copyOf(ids, capacity),
+                    Arrays.copyOf(minutes, capacity),
+                    Arrays.copyOf(authors, capacity),
+                    Arrays.copyOf(times, capacity),
+                    Arrays.copyOf(flags, capacity),
+                    Arrays.copyOf(contentStarts, capacity),
+                    Arrays.copyOf(contentLengths, capacity),
+                    contentBytes > contents.length
+                            ? Arrays.copyOf(contents, Math.max(contents.length * 2, contentBytes))
+                            : contents
+            );
+        } // End of grow()
+    }
+}
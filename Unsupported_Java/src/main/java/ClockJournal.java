@@ -0,0 +1,338 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * ClockJournal is an append-only log of the clocks added to and removed from the {@link ClockIndex}es since the last
+ * {@link ClockStore} snapshot, so a restarted bot does not lose the clocks sent between snapshots. Entries are written
+ * in batches (group commit): every batch is one write followed by one fsync, however many clocks it holds. Values are
+ * as follows:<br>
+ * {@link #path} = The journal file being appended to.<br>
+ * {@link #rotatedPath} = The journal file of the snapshot being written, kept until the snapshot is in place.<br>
+ * {@link #channel} = The open {@link FileChannel} of the {@link #path}, or null until the first batch.
+ * <p>
+ * File layout = for each batch: its length, its CRC32, then each {@link Entry}'s type, message id, and channel id,
+ * followed by the author id, content, and mentioned user ids of an {@link #ADD}. A batch that was only partly written
+ * (or does not match its CRC32) ends the journal when it is replayed.
+ */
+class ClockJournal {
+
+    /**
+     * Type for clocks that were added to an index.
+     */
+    static final byte ADD = 1;
+
+    /**
+     * Type for clocks that were removed from an index (deleted, or replaced by an edit).
+     */
+    static final byte REMOVE = 2;
+
+    /**
+     * The journal file being appended to.
+     */
+    private final Path path;
+
+    /**
+     * The journal file of the snapshot being written, kept until the snapshot is in place.
+     */
+    private final Path rotatedPath;
+
+    /**
+     * The open {@link FileChannel} of the {@link #path}, or null until the first batch.
+     */
+    private FileChannel channel = null;
+
+    /**
+     * Creates a {@link ClockJournal} that appends to the passed in file.
+     *
+     * @param path The journal file.
+     */
+    ClockJournal(Path path) {
+        this.path = path;
+        this.rotatedPath = path.resolveSibling(path.getFileName() + ".old");
+    }
+
+    /**
+     * Appends the batch with one write and makes it durable with one fsync.
+     *
+     * @param entries The {@link Entry}s of the batch.
+     * @throws IOException If the batch could not be written.
+     */
+    synchronized void append(List<Entry> entries) throws IOException {
+        if(entries.isEmpty())
+            return;
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(0); // Length and CRC32, filled in below.
+            out.writeInt(0);
+            for(Entry entry : entries)
+                entry.write(out);
+        }
+
+        ByteBuffer batch = ByteBuffer.wrap(bytes.toByteArray());
+        CRC32 crc = new CRC32();
+        crc.update(batch.array(), 8, batch.capacity() - 8);
+        batch.putInt(0, batch.capacity() - 8);
+        batch.putInt(4, (int) crc.getValue());
+
+        if(channel == null)
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+        while(batch.hasRemaining())
+            channel.write(batch);
+        channel.force(false);
+    } // End of append()
+
+    /**
+     * Starts a new journal file before a snapshot is written. The current file is kept until
+     * {@link #dropRotated()}, so its clocks are not lost if the snapshot fails; a file left over from a failed
+     * snapshot is added to instead of replaced.
+     *
+     * @throws IOException If the journal could not be rotated.
+     */
+    synchronized void rotate() throws IOException {
+        if(channel != null) {
+            channel.close();
+            channel = null;
+        }
+        if(!Files.exists(path))
+            return;
+
+        if(Files.exists(rotatedPath)) {
+            Files.write(rotatedPath, Files.readAllBytes(path), StandardOpenOption.APPEND);
+            Files.delete(path);
+        }
+        else
+            Files.move(path, rotatedPath, StandardCopyOption.ATOMIC_MOVE);
+    } // End of rotate()
+
+    /**
+     * Deletes the file {@link #rotate()} started a new journal from, once the snapshot containing its clocks is in
+     * place.
+     *
+     * @throws IOException If the file could not be deleted.
+     */
+    synchronized void dropRotated() throws IOException {
+        Files.deleteIfExists(rotatedPath);
+    } // End of dropRotated()
+
+    /**
+     * Deletes the journal and a file left over from a failed snapshot, for when there is no snapshot to replay them
+     * on.
+     *
+     * @return Whether there was a journal to delete.
+     * @throws IOException If the journal could not be deleted.
+     */
+    synchronized boolean clear() throws IOException {
+        if(channel != null) {
+            channel.close();
+            channel = null;
+        }
+        boolean deleted = Files.deleteIfExists(path);
+        return Files.deleteIfExists(rotatedPath) || deleted;
+    } // End of clear()
+
+    /**
+     * Reads every {@link Entry} of the journal, oldest first, starting with a file left over from a failed snapshot.
+     * Reading stops at the first batch that was only partly written, and the file is cut off before it so batches
+     * appended afterwards can be read again.
+     *
+     * @param consumer Applies each {@link Entry}.
+     * @return The amount of {@link Entry}s read.
+     * @throws IOException If the journal could not be read.
+     */
+    synchronized int replay(Consumer<Entry> consumer) throws IOException {
+        int count = 0;
+        for(Path file : new Path[] {rotatedPath, path}) {
+            if(!Files.exists(file))
+                continue;
+
+            ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(file));
+            while(in.hasRemaining()) {
+                int batchStart = in.position();
+                int length = in.remaining() >= 8 ? in.getInt() : -1;
+                int expectedCrc = in.remaining() >= 4 ? in.getInt() : 0;
+                CRC32 crc = new CRC32();
+                if(length >= 0 && length <= in.remaining())
+                    crc.update(in.array(), in.position(), length);
+                if(length < 0 || length > in.remaining() || (int) crc.getValue() != expectedCrc) {
+                    System.out.println("Ignoring the end of journal " + file + "! Cause: Partly written batch.");
+                    try (FileChannel truncate = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                        truncate.truncate(batchStart);
+                    }
+                    break;
+                }
+
+                DataInputStream batch = new DataInputStream(
+                        new ByteArrayInputStream(in.array(), in.position(), length)
+                );
+                in.position(in.position() + length);
+                while(batch.available() > 0) {
+                    consumer.accept(Entry.read(batch));
+                    count++;
+                }
+            }
+        }
+        return count;
+    } // End of replay()
+
+    /**
+     * Entry contains one clock that was added to or removed from a channel's {@link ClockIndex}.
+     */
+    static class Entry {
+
+        /**
+         * The {@link #ADD} or {@link #REMOVE} type of the entry.
+         */
+        private final byte type;
+
+        /**
+         * The message id of the clock.
+         */
+        private final long id;
+
+        /**
+         * The id of the channel the clock is in.
+         */
+        private final String channelId;
+
+        /**
+         * The user id of the clock's author, or null for a {@link #REMOVE}.
+         */
+        private final String authorId;
+
+        /**
+         * The content of the clock, or null for a {@link #REMOVE}.
+         */
+        private final String content;
+
+        /**
+         * The user ids of the users the clock mentions; empty for a {@link #REMOVE}.
+         */
+        private final List<String> mentionedUserIds;
+
+        /**
+         * Creates an {@link Entry}.
+         *
+         * @param type The {@link #ADD} or {@link #REMOVE} type of the entry.
+         * @param id The message id of the clock.
+         * @param channelId The id of the channel the clock is in.
+         * @param authorId The user id of the clock's author, or null for a {@link #REMOVE}.
+         * @param content The content of the clock, or null for a {@link #REMOVE}.
+         * @param mentionedUserIds The user ids of the users the clock mentions.
+         */
+        private Entry(
+                byte type, long id, String channelId, String authorId, String content, List<String> mentionedUserIds
+        ) {
+            this.type = type;
+            this.id = id;
+            this.channelId = channelId;
+            this.authorId = authorId;
+            this.content = content;
+            this.mentionedUserIds = mentionedUserIds;
+        }
+
+        /**
+         * @param id The message id of the clock.
+         * @param channelId The id of the channel the clock is in.
+         * @param authorId The user id of the clock's author.
+         * @param content The content of the clock.
+         * @param mentionedUserIds The user ids of the users the clock mentions.
+         * @return An {@link #ADD} {@link Entry}.
+         */
+        static Entry add(long id, String channelId, String authorId, String content, List<String> mentionedUserIds) {
+            return new Entry(ADD, id, channelId, authorId, content, mentionedUserIds);
+        } // End of add()
+
+        /**
+         * @param id The message id of the clock.
+         * @param channelId The id of the channel the clock is in.
+         * @return A {@link #REMOVE} {@link Entry}.
+         */
+        static Entry remove(long id, String channelId) {
+            return new Entry(REMOVE, id, channelId, null, null, Collections.emptyList());
+        } // End of remove()
+
+        /**
+         * Writes the entry to a batch.
+         *
+         * @param out The batch being written.
+         * @throws IOException If the entry could not be written.
+         */
+        private void write(DataOutputStream out) throws IOException {
+            out.writeByte(type);
+            out.writeLong(id);
+            out.writeUTF(channelId);
+            if(type != ADD)
+                return;
+
+            out.writeUTF(authorId);
+            out.writeUTF(content);
+            out.writeShort(mentionedUserIds.size());
+            for(String userId : mentionedUserIds)
+                out.writeUTF(userId);
+        } // End of write()
+
+        /**
+         * Reads an entry written by {@link #write(DataOutputStream)}.
+         *
+         * @param in The batch being read.
+         * @return The {@link Entry} that was read.
+         * @throws IOException If the entry could not be read.
+         */
+        private static Entry read(DataInputStream in) throws IOException {
+            byte type = in.readByte();
+            long id = in.readLong();
+            String channelId = in.readUTF();
+            if(type != ADD)
+                return remove(id, channelId);
+
+            String authorId = in.readUTF();
+            String content = in.readUTF();
+            List<String> mentionedUserIds = new ArrayList<>();
+            for(int i = in.readShort(); i > 0; i--)
+                mentionedUserIds.add(in.readUTF());
+            return add(id, channelId, authorId, content, mentionedUserIds);
+        } // End of read()
+
+        /**
+         * @return The {@link #type} of the {@link Entry}.
+         */
+        byte getType() { return type; }
+
+        /**
+         * @return The {@link #id} of the {@link Entry}.
+         */
+        long getId() { return id; }
+
+        /**
+         * @return The {@link #channelId} of the {@link Entry}.
+         */
+        String getChannelId() { return channelId; }
+
+        /**
+         * @return The {@link #authorId} of the {@link Entry}.
+         */
+        String getAuthorId() { return authorId; }
+
+        /**
+         * @return The {@link #content} of the {@link Entry}.
+         */
+        String getContent() { return content; }
+
+        /**
+         * @return The {@link #mentionedUserIds} of the {@link Entry}.
+         */
+        List<String> getMentionedUserIds() { return mentionedUserIds; }
+    }
+}
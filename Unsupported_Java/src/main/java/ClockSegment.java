@@ -0,0 +1,308 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * ClockSegment contains the clocks and calculated totals of one channel's closed pay period. Once a pay period is
+ * closed its clocks never change, so a segment is written once and only read afterwards. Values are as follows:<br>
+ * {@link #channelId} = The id of the channel the clocks are from.<br>
+ * {@link #startDate} = The first day of the pay period.<br>
+ * {@link #endDate} = The last day of the pay period.<br>
+ * {@link #index} = A {@link ClockIndex} containing only the pay period's clocks.<br>
+ * {@link #reports} = The {@link MemberReport}s of the pay period, in the order they are sent.
+ * <p>
+ * File layout (version {@link #VERSION}):<br>
+ * Header = magic, version, channel id, start day, end day, week count, author ids, then for each member their user id,
+ * name, clock count, and the quarter hours of each week.<br>
+ * Body (deflated) = for each member's clocks: the message id as a delta from the member's previous clock, the author
+ * index, the {@link #INVALID}/{@link #SINGLE} flags, and the UTF-8 content.
+ */
+class ClockSegment {
+
+    /**
+     * The first bytes of every segment file ("TTSG").
+     */
+    private static final int MAGIC = 0x54545347;
+
+    /**
+     * The version of the file layout.
+     */
+    private static final short VERSION = 2;
+
+    /**
+     * Flag for clocks that are invalid clock ins/outs of the member.
+     */
+    private static final byte INVALID = 0x01;
+
+    /**
+     * Flag for clocks that are single clock ins/outs of the member.
+     */
+    private static final byte SINGLE = 0x02;
+
+    /**
+     * The id of the channel the clocks are from.
+     */
+    private final String channelId;
+
+    /**
+     * The first day of the pay period.
+     */
+    private final LocalDate startDate;
+
+    /**
+     * The last day of the pay period.
+     */
+    private final LocalDate endDate;
+
+    /**
+     * A {@link ClockIndex} containing the pay period's clocks.
+     */
+    private final ClockIndex index;
+
+    /**
+     * The {@link MemberReport}s of the pay period, in the order they are sent.
+     */
+    private final List<MemberReport> reports;
+
+    /**
+     * Creates a {@link ClockSegment} for the passed in pay period.
+     *
+     * @param channelId The id of the channel the clocks are from.
+     * @param startDate The first day of the pay period.
+     * @param endDate The last day of the pay period.
+     * @param index The {@link ClockIndex} that contains the rows of the reports.
+     * @param reports The {@link MemberReport}s of the pay period.
+     */
+    ClockSegment(
+            String channelId, LocalDate startDate, LocalDate endDate, ClockIndex index, List<MemberReport> reports
+    ) {
+        this.channelId = channelId;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.index = index;
+        this.reports = reports;
+    }
+
+    /**
+     * Writes the segment to a temporary file next to the path and then moves it in place, so a segment file is never
+     * seen half written. Every write has its own temporary file, so the same pay period can be compacted twice at
+     * once (for example by a '/times MM/dd/yy' command and the finalizer); whichever is moved in last wins, and
+     * both contain the same clocks.
+     *
+     * @param path The path of the segment file.
+     * @throws IOException If the file could not be written.
+     */
+    void write(Path path) throws IOException {
+        int weeks = reports.isEmpty() ? 0 : reports.get(0).getWeekCount();
+        List<String> authorIds = new ArrayList<>();
+        HashMap<String, Integer> authorIndexes = new HashMap<>();
+
+        ByteArrayOutputStream bodyBytes = new ByteArrayOutputStream();
+        try (DataOutputStream body = new DataOutputStream(new DeflaterOutputStream(bodyBytes))) {
+            for(MemberReport report : reports) {
+                long previousId = 0;
+                for(int row : report.getClocks()) {
+                    String authorId = index.getAuthorId(row);
+                    Integer author = authorIndexes.get(authorId);
+                    if(author == null) {
+                        author = authorIds.size();
+                        authorIds.add(authorId);
+                        authorIndexes.put(authorId, author);
+                    }
+
+                    byte flags = 0;
+                    if(report.getInvalidClocks().get(row))
+                        flags |= INVALID;
+                    if(report.getSingleClocks().get(row))
+                        flags |= SINGLE;
+
+                    byte[] content = index.getContent(row).getBytes(StandardCharsets.UTF_8);
+                    writeVarLong(body, index.getId(row) - previousId);
+                    writeVarLong(body, author);
+                    body.writeByte(flags);
+                    writeVarLong(body, content.length);
+                    body.write(content);
+                    previousId = index.getId(row);
+                }
+            }
+        }
+
+        Files.createDirectories(path.getParent());
+        Path temp = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeUTF(channelId);
+            out.writeLong(startDate.toEpochDay());
+            out.writeLong(endDate.toEpochDay());
+            out.writeInt(weeks);
+
+            out.writeInt(authorIds.size());
+            for(String authorId : authorIds)
+                out.writeLong(Long.parseLong(authorId));
+
+            out.writeInt(reports.size());
+            for(MemberReport report : reports) {
+                out.writeLong(Long.parseLong(report.getUserId()));
+                out.writeUTF(report.getName());
+                out.writeInt(report.getClocks().length);
+                for(int week = 0; week < weeks; week++)
+                    out.writeInt((int) Math.round(report.getWeekHours(week) * 4));
+            }
+
+            out.writeInt(bodyBytes.size());
+            bodyBytes.writeTo(out);
+        }
+
+        try {
+            Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            // Another write of the pay period was moved in first.
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    } // End of write()
+
+    /**
+     * Reads a segment file back into a {@link ClockIndex} and {@link MemberReport}s.
+     *
+     * @param path The path of the segment file.
+     * @return The {@link ClockSegment} of the file.
+     * @throws IOException If the file could not be read or is not a segment file.
+     */
+    static ClockSegment read(Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if(in.readInt() != MAGIC || in.readShort() != VERSION)
+                throw new IOException("Not a version " + VERSION + " segment file: " + path);
+
+            String channelId = in.readUTF();
+            LocalDate startDate = LocalDate.ofEpochDay(in.readLong());
+            LocalDate endDate = LocalDate.ofEpochDay(in.readLong());
+            int weeks = in.readInt();
+
+            String[] authorIds = new String[in.readInt()];
+            for(int i = 0; i < authorIds.length; i++)
+                authorIds[i] = Long.toString(in.readLong());
+
+            int memberCount = in.readInt();
+            String[] userIds = new String[memberCount];
+            String[] names = new String[memberCount];
+            int[] clockCounts = new int[memberCount];
+            int[][] quarterHours = new int[memberCount][weeks];
+            for(int member = 0; member < memberCount; member++) {
+                userIds[member] = Long.toString(in.readLong());
+                names[member] = in.readUTF();
+                clockCounts[member] = in.readInt();
+                for(int week = 0; week < weeks; week++)
+                    quarterHours[member][week] = in.readInt();
+            }
+
+            byte[] bodyBytes = new byte[in.readInt()];
+            in.readFully(bodyBytes);
+
+            ClockIndex index = new ClockIndex();
+            List<MemberReport> reports = new ArrayList<>();
+            try (DataInputStream body = new DataInputStream(
+                    new InflaterInputStream(new ByteArrayInputStream(bodyBytes))
+            )) {
+                for(int member = 0; member < memberCount; member++) {
+                    List<String> mentioned = Collections.singletonList(userIds[member]);
+                    int[] rows = new int[clockCounts[member]];
+                    byte[] flags = new byte[rows.length];
+
+                    long id = 0;
+                    for(int clock = 0; clock < rows.length; clock++) {
+                        id += readVarLong(body);
+                        String authorId = authorIds[(int) readVarLong(body)];
+                        flags[clock] = body.readByte();
+                        byte[] content = new byte[(int) readVarLong(body)];
+                        body.readFully(content);
+                        rows[clock] = index.add(id, authorId, new String(content, StandardCharsets.UTF_8), mentioned);
+                    }
+
+                    MemberReport report = new MemberReport(userIds[member], names[member], rows, weeks);
+                    for(int week = 0; week < weeks; week++)
+                        report.setWeekHours(week, quarterHours[member][week] / 4.0);
+                    for(int clock = 0; clock < rows.length; clock++) {
+                        if((flags[clock] & INVALID) != 0)
+                            report.getInvalidClocks().set(rows[clock]);
+                        if((flags[clock] & SINGLE) != 0)
+                            report.getSingleClocks().set(rows[clock]);
+                    }
+                    reports.add(report);
+                }
+            }
+
+            return new ClockSegment(channelId, startDate, endDate, index, reports);
+        }
+    } // End of read()
+
+    /**
+     * @return The {@link #channelId} of the {@link ClockSegment}.
+     */
+    String getChannelId() { return channelId; }
+
+    /**
+     * @return The {@link #startDate} of the {@link ClockSegment}.
+     */
+    LocalDate getStartDate() { return startDate; }
+
+    /**
+     * @return The {@link #endDate} of the {@link ClockSegment}.
+     */
+    LocalDate getEndDate() { return endDate; }
+
+    /**
+     * @return The {@link #index} of the {@link ClockSegment}.
+     */
+    ClockIndex getIndex() { return index; }
+
+    /**
+     * @return The {@link #reports} of the {@link ClockSegment}.
+     */
+    List<MemberReport> getReports() { return reports; }
+
+    /**
+     * Writes a non-negative number 7 bits at a time, so small numbers (like the delta between two clocks' ids) only
+     * take a few bytes.
+     *
+     * @param out The stream to write to.
+     * @param value The number to write.
+     * @throws IOException If the number could not be written.
+     */
+    static void writeVarLong(DataOutput out, long value) throws IOException {
+        while((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    } // End of writeVarLong()
+
+    /**
+     * Reads a number written by {@link #writeVarLong(DataOutput, long)}.
+     *
+     * @param in The stream to read from.
+     * @return The number that was read.
+     * @throws IOException If the number could not be read.
+     */
+    static long readVarLong(DataInput in) throws IOException {
+        long value = 0;
+        for(int shift = 0; shift < 64; shift += 7) {
+            byte b = in.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if((b & 0x80) == 0)
+                return value;
+        }
+        throw new IOException("Malformed variable length number.");
+    } // End of readVarLong()
+}
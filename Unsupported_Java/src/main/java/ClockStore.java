@@ -0,0 +1,290 @@
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * ClockStore holds the state that is shared between every shard's {@link TimeTracker} listener. Values are as
+ * follows:<br>
+ * {@link #clockIndexes} = Each channel's (by channel id) {@link ClockIndex}.<br>
+ * {@link #anomalyIndexes} = Each channel's (by channel id) {@link AnomalyIndex}.<br>
+ * {@link #timesReports} = The {@link TimesReport}s that are still being calculated, by command.<br>
+ * {@link #finalReports} = The finished {@link TimesReport}s of closed pay periods, by command.<br>
+ * {@link #segments} = The {@link SegmentStore} of closed pay periods.<br>
+ * {@link #journal} = The {@link ClockJournal} of the clocks added and removed since the last snapshot.
+ */
+class ClockStore {
+
+    /**
+     * The first bytes of every snapshot file ("TTSN").
+     */
+    private static final int SNAPSHOT_MAGIC = 0x5454534E;
+
+    /**
+     * The version of the snapshot file layout.
+     */
+    private static final short SNAPSHOT_VERSION = 1;
+
+    /**
+     * A {@link ConcurrentHashMap} that contains each channel's (by channel id) {@link ClockIndex}.
+     */
+    private final ConcurrentHashMap<String, ClockIndex> clockIndexes = new ConcurrentHashMap<>();
+
+    /**
+     * A {@link ConcurrentHashMap} that contains each channel's (by channel id) {@link AnomalyIndex}.
+     */
+    private final ConcurrentHashMap<String, AnomalyIndex> anomalyIndexes = new ConcurrentHashMap<>();
+
+    /**
+     * A {@link ConcurrentHashMap} that contains the {@link TimesReport}s that are still being calculated, by command
+     * (channel, pay period, and command name).
+     */
+    private final ConcurrentHashMap<String, CompletableFuture<TimesReport>> timesReports = new ConcurrentHashMap<>();
+
+    /**
+     * A {@link ConcurrentHashMap} that contains the finished {@link TimesReport} of each channel's latest finalized
+     * pay period, by command (channel, pay period, and command name).
+     */
+    private final ConcurrentHashMap<String, TimesReport> finalReports = new ConcurrentHashMap<>();
+
+    /**
+     * The {@link SegmentStore} of closed pay periods.
+     */
+    private final SegmentStore segments = new SegmentStore(Paths.get("./segments"));
+
+    /**
+     * The {@link ClockJournal} of the clocks added and removed since the last snapshot.
+     */
+    private final ClockJournal journal = new ClockJournal(Paths.get("./clocks.journal"));
+
+    /**
+     * Gets the {@link ClockIndex} of the passed in channel id, creating an empty one if it does not exist yet.
+     *
+     * @param channelId The id of the channel.
+     * @return The channel's {@link ClockIndex}.
+     */
+    ClockIndex getIndex(String channelId) {
+        return clockIndexes.computeIfAbsent(channelId, k -> new ClockIndex());
+    } // End of getIndex()
+
+    /**
+     * Gets the {@link ClockIndex} of the passed in channel id if one has been created.
+     *
+     * @param channelId The id of the channel.
+     * @return The channel's {@link ClockIndex} or null.
+     */
+    ClockIndex findIndex(String channelId) {
+        return clockIndexes.get(channelId);
+    } // End of findIndex()
+
+    /**
+     * Gets the {@link AnomalyIndex} of the passed in channel id, creating an empty one if it does not exist yet.
+     *
+     * @param channelId The id of the channel.
+     * @return The channel's {@link AnomalyIndex}.
+     */
+    AnomalyIndex getAnomalies(String channelId) {
+        return anomalyIndexes.computeIfAbsent(channelId, k -> new AnomalyIndex());
+    } // End of getAnomalies()
+
+    /**
+     * @return The ids of the channels that have a {@link ClockIndex}.
+     */
+    List<String> getChannelIds() {
+        return new ArrayList<>(clockIndexes.keySet());
+    } // End of getChannelIds()
+
+    /**
+     * Gets the {@link TimesReport} of the command. A finalized pay period's report is returned as it is (see
+     * {@link #putFinalReport(String, String, TimesReport)}), and a run that is already calculating it is joined.
+     * Otherwise the calculation is started on the executor; it is joinable until every one of its
+     * {@link MemberReport}s is calculated.
+     *
+     * @param key The channel, pay period, and command name of the command.
+     * @param calculation Starts the calculation of the {@link TimesReport}.
+     * @param executor The {@link Executor} the calculation is started on.
+     * @return A {@link CompletableFuture} of the {@link TimesReport}.
+     */
+    CompletableFuture<TimesReport> getTimesReport(String key, Supplier<TimesReport> calculation, Executor executor) {
+        TimesReport finalReport = finalReports.get(key);
+        if(finalReport != null)
+            return CompletableFuture.completedFuture(finalReport);
+
+        CompletableFuture<TimesReport> created = new CompletableFuture<>();
+        CompletableFuture<TimesReport> running = timesReports.putIfAbsent(key, created);
+        if(running != null)
+            return running;
+
+        CompletableFuture.supplyAsync(calculation, executor).whenComplete((timesReport, e) -> {
+            if(e != null) {
+                timesReports.remove(key, created);
+                created.completeExceptionally(e);
+                return;
+            }
+            created.complete(timesReport);
+            timesReport.getDone().whenComplete((done, reportException) -> timesReports.remove(key, created));
+        });
+        return created;
+    } // End of getTimesReport()
+
+    /**
+     * Keeps the finished {@link TimesReport} of a channel's closed pay period, so later commands for it are answered
+     * without calculating anything. Only the channel's latest finalized pay period is kept.
+     *
+     * @param channelId The id of the channel.
+     * @param key The channel, pay period, and command name of the command.
+     * @param timesReport The {@link TimesReport} with every {@link MemberReport} calculated.
+     */
+    void putFinalReport(String channelId, String key, TimesReport timesReport) {
+        finalReports.keySet().removeIf(finalKey -> finalKey.startsWith(channelId + " "));
+        finalReports.put(key, timesReport);
+    } // End of putFinalReport()
+
+    /**
+     * Drops the channel's finalized {@link TimesReport} if its pay period contains the date, so the next command for
+     * that pay period calculates it again. Called when a clock of a closed pay period is edited or deleted.
+     *
+     * @param channelId The id of the channel.
+     * @param date The day the edited or deleted clock was sent on.
+     */
+    void removeFinalReports(String channelId, LocalDate date) {
+        finalReports.entrySet().removeIf(entry -> entry.getKey().startsWith(channelId + " ")
+                && !date.isBefore(entry.getValue().getPeriod().getStartDate())
+                && !date.isAfter(entry.getValue().getPeriod().getEndDate()));
+    } // End of removeFinalReports()
+
+    /**
+     * @param key The channel, pay period, and command name of the command.
+     * @return Whether the command's pay period has been finalized.
+     */
+    boolean hasFinalReport(String key) {
+        return finalReports.containsKey(key);
+    } // End of hasFinalReport()
+
+    /**
+     * Writes every channel's {@link ClockIndex} to a snapshot, so a restarted bot can {@link #restore(Path)} them
+     * instead of loading every channel's history again. The snapshot is written to a temporary file next to the path
+     * and then moved in place, so a snapshot file is never seen half written. The {@link #journal} is rotated first,
+     * so every clock journaled after the rotation is replayed on top of this snapshot by {@link #restore(Path)}.
+     * <p>
+     * File layout (version {@link #SNAPSHOT_VERSION}) = magic, version, channel count, then for each channel its id
+     * and {@link ClockIndex#writeSnapshot(DataOutputStream)}.
+     *
+     * @param path The path of the snapshot file.
+     * @throws IOException If the snapshot could not be written.
+     */
+    void writeSnapshot(Path path) throws IOException {
+        journal.rotate();
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeShort(SNAPSHOT_VERSION);
+
+            Map<String, ClockIndex> indexes = new HashMap<>(clockIndexes);
+            out.writeInt(indexes.size());
+            for(Map.Entry<String, ClockIndex> entry : indexes.entrySet()) {
+                out.writeUTF(entry.getKey());
+                entry.getValue().writeSnapshot(out);
+            }
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        journal.dropRotated();
+    } // End of writeSnapshot()
+
+    /**
+     * Memory maps a snapshot written by {@link #writeSnapshot(Path)} and restores its {@link ClockIndex}es, then
+     * replays the {@link #journal} on top of them. Clocks the snapshot already contains are not added again, and
+     * clocks of channels that are not in the snapshot are skipped, since their index would miss the channel's older
+     * history. Nothing is restored if the file does not exist or is not a snapshot of this version; the journal is
+     * then deleted, since its clocks can not be replayed without the snapshot's indexes (they are loaded with the
+     * channels' history instead), and would otherwise be replayed on top of the next snapshot.
+     * <p>
+     * The {@link AnomalyIndex}es and finalized {@link TimesReport}s are not part of the snapshot. The anomalies are
+     * found again in the restored indexes by the {@link TimeTracker}, and closed pay periods are finalized again from
+     * their {@link ClockSegment}s.
+     *
+     * @param path The path of the snapshot file.
+     * @return The amount of channels that were restored.
+     */
+    int restore(Path path) {
+        if(!Files.exists(path)) {
+            clearJournal("There is no snapshot to replay it on.");
+            return 0;
+        }
+
+        try (FileChannel channel = FileChannel.open(path)) {
+            MappedByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if(in.getInt() != SNAPSHOT_MAGIC || in.getShort() != SNAPSHOT_VERSION) {
+                System.out.println("Ignoring snapshot " + path + "! Cause: Not a version " + SNAPSHOT_VERSION
+                        + " snapshot file.");
+                clearJournal("The snapshot was ignored.");
+                return 0;
+            }
+
+            HashMap<String, ClockIndex> indexes = new HashMap<>();
+            int channels = in.getInt();
+            for(int i = 0; i < channels; i++) {
+                byte[] channelId = new byte[in.getShort() & 0xFFFF];
+                in.get(channelId);
+                indexes.put(new String(channelId, StandardCharsets.UTF_8), ClockIndex.readSnapshot(in));
+            }
+            int replayed = journal.replay(entry -> {
+                ClockIndex index = indexes.get(entry.getChannelId());
+                if(index == null)
+                    return;
+                if(entry.getType() == ClockJournal.REMOVE)
+                    index.remove(Long.toString(entry.getId()));
+                else if(!index.contains(entry.getId(), entry.getMentionedUserIds().get(0)))
+                    index.add(entry.getId(), entry.getAuthorId(), entry.getContent(), entry.getMentionedUserIds());
+            });
+            if(replayed > 0)
+                System.out.println("Replayed " + replayed + " clocks from the journal.");
+
+            clockIndexes.putAll(indexes);
+            return channels;
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Could not read snapshot " + path + "! Cause: " + e.getMessage());
+            clearJournal("The snapshot could not be read.");
+            return 0;
+        }
+    } // End of restore()
+
+    /**
+     * Deletes the {@link #journal} when there is no snapshot to replay it on.
+     *
+     * @param cause Why the journal can not be replayed.
+     */
+    private void clearJournal(String cause) {
+        try {
+            if(journal.clear())
+                System.out.println("Dropped the journal! Cause: " + cause);
+        } catch (IOException e) {
+            System.out.println("Could not drop the journal! Cause: " + e.getMessage());
+        }
+    } // End of clearJournal()
+
+    /**
+     * @return The {@link SegmentStore} of closed pay periods.
+     */
+    SegmentStore getSegments() { return segments; }
+
+    /**
+     * @return The {@link ClockJournal} of the clocks added and removed since the last snapshot.
+     */
+    ClockJournal getJournal() { return journal; }
+}
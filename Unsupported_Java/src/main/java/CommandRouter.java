@@ -0,0 +1,176 @@
+import net.dv8tion.jda.core.events.message.guild.GuildMessageReceivedEvent;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * CommandRouter sends '/command' messages to the {@link Handler} registered for the command. Messages that do not
+ * start with "/" are rejected after checking their first character, and the arguments of a command are only split
+ * into {@link String}s when a handler asks for them, so every message costs the same no matter how many commands are
+ * registered. Values are as follows:<br>
+ * {@link #handlers} = The {@link Handler} of each (lower case) command name, including the "/".
+ */
+class CommandRouter {
+
+    /**
+     * Handler handles one command.
+     */
+    interface Handler {
+
+        /**
+         * Handles the command.
+         *
+         * @param event The event of the command's message.
+         * @param command The tokenized {@link Command}.
+         */
+        void handle(GuildMessageReceivedEvent event, Command command);
+    }
+
+    /**
+     * The {@link Handler} of each (lower case) command name, including the "/".
+     */
+    private final HashMap<String, Handler> handlers = new HashMap<>();
+
+    /**
+     * Registers the {@link Handler} of a command.
+     *
+     * @param name The name of the command, including the "/".
+     * @param handler The {@link Handler} of the command.
+     * @return This {@link CommandRouter}, so registrations can be chained.
+     */
+    CommandRouter register(String name, Handler handler) {
+        handlers.put(name.toLowerCase(), handler);
+        return this;
+    } // End of register()
+
+    /**
+     * Sends the message to the {@link Handler} of its command.
+     *
+     * @param event The event of the message.
+     * @return Whether the message was a registered command.
+     */
+    boolean dispatch(GuildMessageReceivedEvent event) {
+        String content = event.getMessage().getContent();
+        if(content.isEmpty() || content.charAt(0) != '/')
+            return false;
+
+        Command command = new Command(content);
+        Handler handler = handlers.get(command.getName());
+        if(handler == null)
+            return false;
+
+        handler.handle(event, command);
+        return true;
+    } // End of dispatch()
+
+    /**
+     * Command contains a command message split on spaces. Tokens are kept as bounds within the content and are only
+     * turned into {@link String}s when asked for. Token 0 is the command name.
+     */
+    static class Command {
+
+        /**
+         * The content of the command message.
+         */
+        private final String content;
+
+        /**
+         * The start of each token within the {@link #content}.
+         */
+        private int[] starts = new int[4];
+
+        /**
+         * The end (exclusive) of each token within the {@link #content}.
+         */
+        private int[] ends = new int[4];
+
+        /**
+         * The amount of tokens.
+         */
+        private int count = 0;
+
+        /**
+         * Tokenizes the content of a command message.
+         *
+         * @param content The content of the command message.
+         */
+        Command(String content) {
+            this.content = content;
+
+            int position = 0;
+            int length = content.length();
+            while(position < length) {
+                while(position < length && content.charAt(position) == ' ')
+                    position++;
+                if(position == length)
+                    break;
+
+                int start = position;
+                while(position < length && content.charAt(position) != ' ')
+                    position++;
+
+                if(count == starts.length) {
+                    starts = Arrays.copyOf(starts, count * 2);
+                    ends = Arrays.copyOf(ends, count * 2);
+                }
+                starts[count] = start;
+                ends[count] = position;
+                count++;
+            }
+        }
+
+        /**
+         * @return The lower case name of the command, including the "/".
+         */
+        String getName() {
+            return content.substring(starts[0], ends[0]).toLowerCase();
+        } // End of getName()
+
+        /**
+         * @return The amount of tokens, including the command name.
+         */
+        int getTokenCount() { return count; }
+
+        /**
+         * @param token The token, where 0 is the command name.
+         * @return The token as a {@link String}.
+         */
+        String getToken(int token) {
+            return content.substring(starts[token], ends[token]);
+        } // End of getToken()
+
+        /**
+         * @return The last token as a {@link String}.
+         */
+        String getLastToken() {
+            return getToken(count - 1);
+        } // End of getLastToken()
+
+        /**
+         * Checks if the token is a date in the form of "digits/digits/digits" (for example 01/07/17), without
+         * creating any {@link String}s.
+         *
+         * @param token The token to check.
+         * @return Whether the token is a date.
+         */
+        boolean isDate(int token) {
+            if(token < 0 || token >= count)
+                return false;
+
+            int slashes = 0;
+            boolean digitBefore = false;
+            for(int i = starts[token]; i < ends[token]; i++) {
+                char c = content.charAt(i);
+                if(c >= '0' && c <= '9')
+                    digitBefore = true;
+                else if(c == '/' && digitBefore) {
+                    slashes++;
+                    digitBefore = false;
+                }
+                else
+                    return false;
+            }
+            return slashes == 2 && digitBefore;
+        } // End of isDate()
+    }
+}
@@ -1,75 +1,160 @@
-import net.dv8tion.jda.core.entities.Message;
-
-import java.util.Calendar;
-import java.util.Date;
+import java.util.List;
 
 /**
- * DiscordClock contains values for a clock in/out message. Values are as follows:<br>
- * {@link #type} = "In" or "Out".<br>
- * {@link #message} = The clock in/out message from Discord.<br>
- * {@link #calendar} instance needed for the {@link Calendar#HOUR_OF_DAY} and {@link Calendar#MINUTE} of the clock.<br>
- * {@link #time} = The time of the clock in quarter hours.
+ * DiscordClock contains the rules for reading a clock in/out message's content. The values it produces are stored as
+ * primitive columns by {@link ClockIndex} instead of keeping an object for every clock. Values are as follows:<br>
+ * {@link #getFlags(String)} = {@link #CLOCK_IN}, {@link #CLOCK_WORDS} and {@link #MERIDIEM} bits of the content.<br>
+ * {@link #parseTime(String)} = The time of the clock in quarter hours (hours * 4) or {@link #INVALID_TIME}.
  */
 class DiscordClock {
 
     /**
-     * "In" or "Out" value of the clock.
+     * Flag for content that contains a clock in key word (see {@link #containsClockIn(String)}).
      */
-    private String type;
+    static final byte CLOCK_IN = 0x01;
 
     /**
-     * The clock in/out message from Discord.
+     * Flag for content that contains any clock in or out key word (see {@link #containsClockWords(String)}).
      */
-    private Message message;
+    static final byte CLOCK_WORDS = 0x02;
 
     /**
-     * {@link Calendar} instance needed for the {@link Calendar#HOUR_OF_DAY} and {@link Calendar#MINUTE} of the clock.
+     * Flag for content that ends with a meridiem (see {@link #endsWithMeridiem(String)}).
      */
-    private Calendar calendar;
+    static final byte MERIDIEM = 0x04;
 
     /**
-     * The time of the clock in quarter hours.
+     * Time returned by {@link #parseTime(String)} when the content does not end with "XX:XX XM".
      */
-    private double time;
+    static final int INVALID_TIME = -1;
 
     /**
-     * Creates a {@link DiscordClock} with the passed in type, message, and timestamp.
+     * Gets the {@link #CLOCK_IN}, {@link #CLOCK_WORDS} and {@link #MERIDIEM} flags of the passed in content.
      *
-     * @param type "In" or "Out" value of the clock.
-     * @param message The clock in/out message from Discord.
-     * @param timestamp Date used to set the time for {@link #calendar}.
+     * @param content The content of a clock in/out message.
+     * @return The flags of the content.
      */
-    DiscordClock(String type, Message message, Date timestamp) {
-        this.type = type;
-        this.message = message;
-        calendar = Calendar.getInstance();
-        calendar.setTime(timestamp);
-        setTime();
-    }
+    static byte getFlags(String content) {
+        byte flags = 0;
+        if(containsClockIn(content))
+            flags |= CLOCK_IN;
+        if(containsClockWords(content))
+            flags |= CLOCK_WORDS;
+        if(endsWithMeridiem(content))
+            flags |= MERIDIEM;
+        return flags;
+    } // End of getFlags()
 
     /**
-     * Sets the {@link #time} of the {@link DiscordClock} using the {@link #calendar} instance.
+     * Gets the time of the clock from the "XX:XX XM" at the end of the content. The minutes are rounded to a quarter
+     * hour by {@link #calculateQuarterMinutes(int)}.
+     *
+     * @param content The content of a clock in/out message.
+     * @return The time of the clock in quarter hours (hours * 4) or {@link #INVALID_TIME}.
      */
-    private void setTime() {
-        double hour = calendar.get(Calendar.HOUR_OF_DAY);
-        double minutes = (calculateQuarterMinutes(calendar.get(Calendar.MINUTE)) / 60.0);
-
-        // Set minutes to 0 instead of 1 and then increase the hour by one.
-        if(calculateQuarterMinutes(calendar.get(Calendar.MINUTE)) == 60) {
-            minutes = 0.0;
-            hour++;
-        }
+    static int parseTime(String content) {
+        if(content.length() < 8 || !endsWithMeridiem(content))
+            return INVALID_TIME;
+
+        // Based on the clock message having "XX:XX XM" at the end.
+        String time = content.substring(content.length() - 8).trim();
+        int colon = time.indexOf(':');
+        if(colon < 1 || colon + 6 != time.length())
+            return INVALID_TIME;
+
+        int hour = parseDigits(time, 0, colon);
+        int minutes = parseDigits(time, colon + 1, colon + 3);
+        if(hour < 0 || hour > 12 || minutes < 0 || minutes > 59)
+            return INVALID_TIME;
+
+        hour %= 12;
+        if(time.substring(time.length() - 2).equalsIgnoreCase("pm"))
+            hour += 12;
+
+        // Quarter minutes of 60 increase the hour by one.
+        return hour * 4 + calculateQuarterMinutes(minutes) / 15;
+    } // End of parseTime()
+
+    /**
+     * Checks if the content has a clock in key word. It also checks for clock outs via the return value of false.
+     * (There are only clock in and out messages being passed into this method; extraneous messages are
+     * non-existent.)
+     *
+     * @param content Content to be checked.
+     * @return Whether the content contains a clock in (true) or clock out (false) key word.
+     */
+    static boolean containsClockIn(String content) {
+        String lowerCase = content.toLowerCase();
+        for(String clockInWord : TimeTracker.CLOCK_IN_WORDS)
+            if(lowerCase.contains(" " + clockInWord.toLowerCase() + " "))
+                return true;
+        return false;
+    } // End of containsClockIn()
+
+    /**
+     * Checks if a clocked in or out keyword is contained in the content. Key words are populated from the
+     * bot.properties file.
+     *
+     * @param content The content to check.
+     * @return True if a clocked in or out word is contained in the content.
+     */
+    static boolean containsClockWords(String content) {
+        return containsAny(content, TimeTracker.CLOCK_IN_WORDS) || containsAny(content, TimeTracker.CLOCK_OUT_WORDS);
+    } // End of containsClockWords()
+
+    /**
+     * Helps validate clocks by checking if the last 3 characters are a space followed by a meridiem.
+     *
+     * @param content Content to check.
+     * @return Whether the content contains a meridiem at the end.
+     */
+    static boolean endsWithMeridiem(String content) {
+        if(content.length() < 3)
+            return false;
+        String meridiemCheck = content.substring(content.length() - 3);
+        return (meridiemCheck.equalsIgnoreCase(" am") || meridiemCheck.equalsIgnoreCase(" pm"));
+    } // End of endsWithMeridiem()
+
+    /**
+     * Checks if any of the lower case key words are contained in the content.
+     *
+     * @param content The content to check.
+     * @param words The key words.
+     * @return True if one of the key words is contained in the content.
+     */
+    private static boolean containsAny(String content, List<String> words) {
+        for(String word : words)
+            if(content.contains(word.toLowerCase()))
+                return true;
+        return false;
+    } // End of containsAny()
 
-        time =  hour + minutes;
-    }
+    /**
+     * Parses the digits between start and end without creating a new {@link String}.
+     *
+     * @param str The {@link String} containing the digits.
+     * @param start The index of the first digit.
+     * @param end The index after the last digit.
+     * @return The parsed number or -1 if a character was not a digit.
+     */
+    private static int parseDigits(String str, int start, int end) {
+        int number = 0;
+        for(int i = start; i < end; i++) {
+            char c = str.charAt(i);
+            if(c < '0' || c > '9')
+                return -1;
+            number = number * 10 + (c - '0');
+        }
+        return number;
+    } // End of parseDigits()
 
     /**
-     * Calculates the quarter hour based on the minutes given. Used in {@link #setTime()}.
+     * Calculates the quarter hour based on the minutes given. Used in {@link #parseTime(String)}.
      *
      * @param minutes Minutes to be converted into a quarter hour amount (divide by 60).
-     * @return Minutes in the form of a quarter hour. (0, 15, 30, 45)
+     * @return Minutes in the form of a quarter hour. (0, 15, 30, 45, or 60 when the hour needs to increase)
      */
-    private int calculateQuarterMinutes(int minutes) {
+    private static int calculateQuarterMinutes(int minutes) {
         int tens = minutes / 10;
         int ones = minutes % 10;
 
@@ -117,19 +202,4 @@ class DiscordClock {
 
         return (tens * 10) + ones;
     } // End of calculateQuarterMinutes()
-
-    /**
-     * @return The {@link #type} of the {@link DiscordClock}.
-     */
-    String getType() { return type; }
-
-    /**
-     * @return The {@link #message} of the {@link DiscordClock}.
-     */
-    Message getMessage() { return message; }
-
-    /**
-     * @return The {@link #time} of the {@link DiscordClock}.
-     */
-    double getTime() { return time; }
 }
@@ -0,0 +1,355 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * ExportedMessage contains the values of one message read from an exported channel history file, where every line is
+ * a Discord message object in JSON. Values are as follows:<br>
+ * {@link #id} = The message id.<br>
+ * {@link #channelId} = The id of the channel the message was sent in (null if the line does not contain it).<br>
+ * {@link #authorId} = The user id of the message's author.<br>
+ * {@link #content} = The content of the message, with its mentions resolved the way Message#getContent() shows them
+ * (see {@link #resolveMentions(String, List, List)}).<br>
+ * {@link #mentionIds} and {@link #mentionNames} = The user ids and names of the users the message mentions.
+ */
+class ExportedMessage {
+
+    /**
+     * A custom emote as it is sent in a message's raw content, for example "&lt;:wave:1234&gt;".
+     */
+    private static final Pattern EMOTE = Pattern.compile("<a?:([A-Za-z0-9_]+):[0-9]+>");
+
+    /**
+     * The message id.
+     */
+    private long id;
+
+    /**
+     * The id of the channel the message was sent in.
+     */
+    private String channelId;
+
+    /**
+     * The user id of the message's author.
+     */
+    private String authorId;
+
+    /**
+     * The content of the message, with its mentions resolved.
+     */
+    private String content = "";
+
+    /**
+     * The user ids of the users the message mentions.
+     */
+    private List<String> mentionIds = new ArrayList<>();
+
+    /**
+     * The names of the users the message mentions, in the same order as {@link #mentionIds}.
+     */
+    private List<String> mentionNames = new ArrayList<>();
+
+    /**
+     * Parses one line of an exported channel history file. Only the "id", "channel_id", "author", "content" and
+     * "mentions" values are kept; every other value is skipped without being built.
+     *
+     * @param line The line containing a Discord message object in JSON.
+     * @return The {@link ExportedMessage} of the line.
+     * @throws IllegalArgumentException If the line is not a message object.
+     */
+    static ExportedMessage parse(String line) {
+        return read(new Parser(line));
+    } // End of parse()
+
+    /**
+     * Reads one message object.
+     *
+     * @param parser The {@link Parser} positioned at the message object.
+     * @return The {@link ExportedMessage} of the object.
+     * @throws IllegalArgumentException If the object is not a message object.
+     */
+    private static ExportedMessage read(Parser parser) {
+        ExportedMessage message = new ExportedMessage();
+        boolean hasId = false;
+
+        parser.expect('{');
+        if(!parser.consume('}')) {
+            do {
+                String key = parser.readString();
+                parser.expect(':');
+                switch (key) {
+                    case "id":
+                        message.id = Long.parseLong(parser.readScalar());
+                        hasId = true;
+                        break;
+                    case "channel_id":
+                        message.channelId = parser.readScalar();
+                        break;
+                    case "author":
+                        message.authorId = parser.readUser().get("id");
+                        break;
+                    case "content":
+                        message.content = parser.readScalar();
+                        break;
+                    case "mentions":
+                        parser.expect('[');
+                        if(!parser.consume(']')) {
+                            do {
+                                Map<String, String> user = parser.readUser();
+                                message.mentionIds.add(user.get("id"));
+                                message.mentionNames.add(
+                                        user.containsKey("username") ? user.get("username") : user.get("name")
+                                );
+                            } while(parser.consume(','));
+                            parser.expect(']');
+                        }
+                        break;
+                    default:
+                        parser.skipValue();
+                }
+            } while(parser.consume(','));
+            parser.expect('}');
+        }
+
+        if(!hasId || message.authorId == null)
+            throw new IllegalArgumentException("Line is not a message object.");
+        message.content = resolveMentions(message.content, message.mentionIds, message.mentionNames);
+        return message;
+    } // End of read()
+
+    /**
+     * Replaces the user mentions ("&lt;@id&gt;" and "&lt;@!id&gt;") of a raw content with "@" and the user's name,
+     * and custom emotes with ":name:", the way Message#getContent() does for the clocks the bot receives. The clocks
+     * of an import are then stored, checked and shown the same way as live ones.
+     *
+     * @param content The raw content of the message.
+     * @param mentionIds The user ids of the users the message mentions.
+     * @param mentionNames The names of the users the message mentions, in the same order.
+     * @return The resolved content.
+     */
+    static String resolveMentions(String content, List<String> mentionIds, List<String> mentionNames) {
+        if(content.indexOf('<') < 0)
+            return content;
+
+        for(int i = 0; i < mentionIds.size(); i++) {
+            String name = mentionNames.get(i);
+            if(name != null)
+                content = content.replace("<@" + mentionIds.get(i) + ">", "@" + name)
+                        .replace("<@!" + mentionIds.get(i) + ">", "@" + name);
+        }
+        return EMOTE.matcher(content).replaceAll(":$1:");
+    } // End of resolveMentions()
+
+    /**
+     * @return The {@link #id} of the {@link ExportedMessage}.
+     */
+    long getId() { return id; }
+
+    /**
+     * @return The {@link #channelId} of the {@link ExportedMessage}.
+     */
+    String getChannelId() { return channelId; }
+
+    /**
+     * @return The {@link #authorId} of the {@link ExportedMessage}.
+     */
+    String getAuthorId() { return authorId; }
+
+    /**
+     * @return The {@link #content} of the {@link ExportedMessage}.
+     */
+    String getContent() { return content; }
+
+    /**
+     * @return The {@link #mentionIds} of the {@link ExportedMessage}.
+     */
+    List<String> getMentionIds() { return mentionIds; }
+
+    /**
+     * @return The {@link #mentionNames} of the {@link ExportedMessage}.
+     */
+    List<String> getMentionNames() { return mentionNames; }
+
+    /**
+     * A minimal JSON reader over one line. It only builds the values that are asked for.
+     */
+    private static class Parser {
+
+        /**
+         * The line being read.
+         */
+        private final String json;
+
+        /**
+         * The index of the next character to read.
+         */
+        private int position = 0;
+
+        /**
+         * Creates a {@link Parser} for the passed in line.
+         *
+         * @param json The line being read.
+         */
+        Parser(String json) {
+            this.json = json;
+        }
+
+        /**
+         * Reads a user object, keeping only its string and number values.
+         *
+         * @return The user's values by key.
+         */
+        Map<String, String> readUser() {
+            Map<String, String> user = new HashMap<>();
+            expect('{');
+            if(!consume('}')) {
+                do {
+                    String key = readString();
+                    expect(':');
+                    skipWhitespace();
+                    char c = peek();
+                    if(c == '"' || c == '-' || (c >= '0' && c <= '9'))
+                        user.put(key, readScalar());
+                    else
+                        skipValue();
+                } while(consume(','));
+                expect('}');
+            }
+            return user;
+        } // End of readUser()
+
+        /**
+         * Reads a string, number, true, false or null as a {@link String} (null for null).
+         *
+         * @return The value that was read.
+         */
+        String readScalar() {
+            skipWhitespace();
+            if(peek() == '"')
+                return readString();
+
+            int start = position;
+            while(position < json.length() && ",}] \t".indexOf(json.charAt(position)) < 0)
+                position++;
+            String value = json.substring(start, position);
+            return value.equals("null") ? null : value;
+        } // End of readScalar()
+
+        /**
+         * Reads a string, decoding its escape sequences.
+         *
+         * @return The string that was read.
+         */
+        String readString() {
+            expect('"');
+            StringBuilder str = null;
+            int start = position;
+            while(true) {
+                char c = next();
+                if(c == '"')
+                    return str == null ? json.substring(start, position - 1) : str.toString();
+                if(c == '\\') {
+                    if(str == null)
+                        str = new StringBuilder(json.substring(start, position - 1));
+                    char escaped = next();
+                    switch (escaped) {
+                        case 'b': str.append('\b'); break;
+                        case 'f': str.append('\f'); break;
+                        case 'n': str.append('\n'); break;
+                        case 'r': str.append('\r'); break;
+                        case 't': str.append('\t'); break;
+                        case 'u':
+                            if(position + 4 > json.length())
+                                throw new IllegalArgumentException("Unterminated escape at " + position);
+                            str.append((char) Integer.parseInt(json.substring(position, position + 4), 16));
+                            position += 4;
+                            break;
+                        default: str.append(escaped);
+                    }
+                }
+                else if(str != null)
+                    str.append(c);
+            }
+        } // End of readString()
+
+        /**
+         * Skips over any value, including nested objects and arrays.
+         */
+        void skipValue() {
+            skipWhitespace();
+            char c = peek();
+            if(c == '"')
+                readString();
+            else if(c == '{' || c == '[') {
+                char close = c == '{' ? '}' : ']';
+                position++;
+                if(!consume(close)) {
+                    do {
+                        if(c == '{') {
+                            readString();
+                            expect(':');
+                        }
+                        skipValue();
+                    } while(consume(','));
+                    expect(close);
+                }
+            }
+            else
+                readScalar();
+        } // End of skipValue()
+
+        /**
+         * Skips whitespace and reads the next character if it is the expected one.
+         *
+         * @param c The expected character.
+         * @return Whether the character was read.
+         */
+        boolean consume(char c) {
+            skipWhitespace();
+            if(position < json.length() && json.charAt(position) == c) {
+                position++;
+                return true;
+            }
+            return false;
+        } // End of consume()
+
+        /**
+         * Skips whitespace and reads the expected character.
+         *
+         * @param c The expected character.
+         * @throws IllegalArgumentException If the next character is not the expected one.
+         */
+        void expect(char c) {
+            if(!consume(c))
+                throw new IllegalArgumentException("Expected '" + c + "' at " + position);
+        } // End of expect()
+
+        /**
+         * @return The next character without reading it.
+         */
+        private char peek() {
+            if(position >= json.length())
+                throw new IllegalArgumentException("Unexpected end of line.");
+            return json.charAt(position);
+        } // End of peek()
+
+        /**
+         * @return The next character.
+         */
+        private char next() {
+            char c = peek();
+            position++;
+            return c;
+        } // End of next()
+
+        /**
+         * Skips spaces, tabs and line breaks.
+         */
+        private void skipWhitespace() {
+            while(position < json.length() && Character.isWhitespace(json.charAt(position)))
+                position++;
+        } // End of skipWhitespace()
+    }
+}
@@ -0,0 +1,517 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * HistoryImporter builds the {@link ClockSegment}s of closed pay periods from exported channel history files, so a
+ * channel's past pay periods can be reported on without the bot paging through the channel's history.
+ * <p>
+ * Usage: java -cp TimeTracker.jar HistoryImporter history.jsonl [more.jsonl ...]<br>
+ * Pay periods are found with the bot's {@link PaySchedule} and anchor date from bot.properties, so the segments are
+ * the same pay periods the bot reports on; fixed length schedules need the anchor date set. Every line of
+ * a file is one Discord message object in JSON; messages without a "channel_id" are put in the channel named after
+ * the file (without its extension). Segments are written to the same "./segments" directory the bot reads from and
+ * existing segments are never overwritten. The pay period that has not closed yet is left to the bot.
+ * <p>
+ * Lines are read in batches of {@link #BATCH_SIZE} that are parsed in parallel and then merged in the order they were
+ * read. At most {@link #BATCHES_IN_FLIGHT} batches are held at once. Parsed clocks are sorted by channel and message
+ * id and spilled to a temporary run file every {@link #RUN_SIZE} clocks; the runs are then merged in that order, so
+ * clocks exported twice are dropped as they meet, and each pay period's segment is written before the next pay
+ * period is read. Memory stays flat for any amount of history: at most one run and one pay period's clocks are held
+ * at once.
+ */
+public class HistoryImporter {
+
+    /**
+     * The amount of lines parsed together.
+     */
+    private static final int BATCH_SIZE = 10000;
+
+    /**
+     * The amount of threads parsing batches.
+     */
+    private static final int PARSE_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors());
+
+    /**
+     * The most batches that are read but not merged yet.
+     */
+    private static final int BATCHES_IN_FLIGHT = PARSE_THREADS * 2;
+
+    /**
+     * The most clocks held in memory before they are sorted and spilled to a run file.
+     */
+    private static final int RUN_SIZE = 100000;
+
+    /**
+     * The clocks parsed since the last run was spilled.
+     */
+    private final List<SpilledClock> buffer = new ArrayList<>();
+
+    /**
+     * The run files, each sorted by channel and message id.
+     */
+    private final List<Path> runs = new ArrayList<>();
+
+    /**
+     * The ids of the channels clocks were read for.
+     */
+    private final HashSet<String> channelIds = new HashSet<>();
+
+    /**
+     * The latest name of each user (by user id) seen in the mentions.
+     */
+    private final HashMap<String, String> names = new HashMap<>();
+
+    /**
+     * The amount of lines that could not be parsed.
+     */
+    private int skippedLines = 0;
+
+    /**
+     * The amount of clocks imported, without the ones that were exported twice.
+     */
+    private int importedClocks = 0;
+
+    /**
+     * Imports the exported history files given as arguments into segments.
+     *
+     * @param args Given arguments from command line: the exported history files.
+     */
+    public static void main(String[] args) {
+        if(args.length < 1) {
+            System.out.println("Usage: HistoryImporter <history.jsonl> [more.jsonl ...]");
+            return;
+        }
+
+        try {
+            TimeTracker.loadProperties("");
+        } catch (IOException e) {
+            System.out.println("Could not read bot.properties, using default settings! Cause: " + e.getMessage());
+        }
+        ZoneId timeZone = TimeTracker.getTimeZone();
+        LocalDate anchor = TimeTracker.PAY_ANCHOR;
+        if(!TimeTracker.PAY_SCHEDULE.isAnchored(anchor)) {
+            System.out.println("Set the pay period anchor date in bot.properties to import a fixed length schedule.");
+            return;
+        }
+
+        HistoryImporter importer = new HistoryImporter();
+        ExecutorService executor = Executors.newFixedThreadPool(PARSE_THREADS);
+        int segments;
+        try {
+            for(int i = 0; i < args.length; i++)
+                importer.importFile(Paths.get(args[i]), executor);
+            importer.spill();
+            segments = importer.writeSegments(new SegmentStore(Paths.get("./segments")), anchor, timeZone);
+        } catch (Exception e) {
+            System.out.println("Failed to import history! Cause: " + e.getMessage());
+            return;
+        } finally {
+            executor.shutdown();
+            importer.deleteRuns();
+        }
+
+        System.out.println("Imported " + importer.importedClocks + " clocks from " + importer.channelIds.size()
+                + " channels into " + segments + " segments (" + importer.skippedLines + " lines skipped).");
+    } // End of main()
+
+    /**
+     * Reads the file in batches, parsing them on the executor and merging them in the order they were read.
+     *
+     * @param file The exported channel history file.
+     * @param executor The {@link ExecutorService} that parses the batches.
+     * @throws Exception If the file could not be read.
+     */
+    private void importFile(Path file, ExecutorService executor) throws Exception {
+        String fileName = file.getFileName().toString();
+        String defaultChannelId = fileName.contains(".") ? fileName.substring(0, fileName.lastIndexOf('.')) : fileName;
+        ArrayDeque<Future<List<ExportedMessage>>> batches = new ArrayDeque<>();
+
+        try (BufferedReader br = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            List<String> lines = new ArrayList<>(BATCH_SIZE);
+            String line;
+            while((line = br.readLine()) != null) {
+                if(line.trim().isEmpty())
+                    continue;
+                lines.add(line);
+                if(lines.size() == BATCH_SIZE) {
+                    List<String> batch = lines;
+                    batches.add(executor.submit(() -> parseBatch(batch)));
+                    lines = new ArrayList<>(BATCH_SIZE);
+                    if(batches.size() == BATCHES_IN_FLIGHT)
+                        mergeBatch(batches.poll().get(), defaultChannelId);
+                }
+            }
+            if(!lines.isEmpty()) {
+                List<String> batch = lines;
+                batches.add(executor.submit(() -> parseBatch(batch)));
+            }
+        }
+
+        while(!batches.isEmpty())
+            mergeBatch(batches.poll().get(), defaultChannelId);
+    } // End of importFile()
+
+    /**
+     * Parses the lines, keeping only the messages that could be clocks (ones that mention someone and contain words
+     * from {@link TimeTracker#CLOCK_IN_WORDS} or {@link TimeTracker#CLOCK_OUT_WORDS}). Lines that can not be parsed
+     * are returned as null.
+     *
+     * @param lines The lines of the batch.
+     * @return The clocks of the batch in the order they were read, followed by a null for each skipped line. They are
+     *         sorted when they are spilled to a run file.
+     */
+    private static List<ExportedMessage> parseBatch(List<String> lines) {
+        List<ExportedMessage> clocks = new ArrayList<>();
+        int skipped = 0;
+        for(String line : lines) {
+            try {
+                ExportedMessage message = ExportedMessage.parse(line);
+                if(!message.getMentionIds().isEmpty() && DiscordClock.containsClockWords(message.getContent()))
+                    clocks.add(message);
+            } catch (RuntimeException e) {
+                skipped++;
+            }
+        }
+
+        for(int i = 0; i < skipped; i++)
+            clocks.add(null);
+        return clocks;
+    } // End of parseBatch()
+
+    /**
+     * Adds the parsed clocks to the {@link #buffer}, spilling it to a run file whenever it is full. The latest name of
+     * every mentioned user is kept for the reports.
+     *
+     * @param clocks The parsed clocks of a batch.
+     * @param defaultChannelId The channel id of clocks that do not have one.
+     * @throws IOException If a run file could not be written.
+     */
+    private void mergeBatch(List<ExportedMessage> clocks, String defaultChannelId) throws IOException {
+        for(ExportedMessage clock : clocks) {
+            if(clock == null) {
+                skippedLines++;
+                continue;
+            }
+
+            String channelId = clock.getChannelId() != null ? clock.getChannelId() : defaultChannelId;
+            channelIds.add(channelId);
+            for(int i = 0; i < clock.getMentionIds().size(); i++)
+                if(clock.getMentionNames().get(i) != null)
+                    names.put(clock.getMentionIds().get(i), clock.getMentionNames().get(i));
+
+            buffer.add(new SpilledClock(
+                    channelId, clock.getId(), clock.getAuthorId(), clock.getContent(), clock.getMentionIds()
+            ));
+            if(buffer.size() == RUN_SIZE)
+                spill();
+        }
+    } // End of mergeBatch()
+
+    /**
+     * Sorts the {@link #buffer} by channel and message id and writes it to a new run file.
+     *
+     * @throws IOException If the run file could not be written.
+     */
+    private void spill() throws IOException {
+        if(buffer.isEmpty())
+            return;
+
+        buffer.sort(SpilledClock.ORDER);
+        Path run = Files.createTempFile("TimeTracker-import", ".run");
+        runs.add(run);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(run)))) {
+            out.writeInt(buffer.size());
+            for(SpilledClock clock : buffer)
+                clock.write(out);
+        }
+        buffer.clear();
+    } // End of spill()
+
+    /**
+     * Deletes the run files.
+     */
+    private void deleteRuns() {
+        for(Path run : runs)
+            try {
+                Files.deleteIfExists(run);
+            } catch (IOException e) {
+                System.out.println("Could not delete " + run + "! Cause: " + e.getMessage());
+            }
+        runs.clear();
+    } // End of deleteRuns()
+
+    /**
+     * Merges the run files in channel and message id order and writes a {@link ClockSegment} for every closed pay
+     * period that contains clocks. A clock with the same channel and id as the one before it was exported twice and
+     * is skipped. Each pay period's clocks are collected in their own {@link ClockIndex} (appended oldest to newest)
+     * and written as soon as the merge moves past the pay period.
+     *
+     * @param segments The {@link SegmentStore} to write to.
+     * @param anchor The start of any pay period, or null for month based schedules.
+     * @param timeZone The timezone the pay periods are in.
+     * @return The amount of segments that were written.
+     * @throws IOException If a run file could not be read.
+     */
+    private int writeSegments(SegmentStore segments, LocalDate anchor, ZoneId timeZone) throws IOException {
+        PaySchedule schedule = TimeTracker.PAY_SCHEDULE;
+        LocalDate today = LocalDate.now(timeZone);
+        int written = 0;
+
+        List<RunReader> readers = new ArrayList<>();
+        PriorityQueue<RunReader> queue = new PriorityQueue<>(
+                (a, b) -> SpilledClock.ORDER.compare(a.getCurrent(), b.getCurrent())
+        );
+        try {
+            for(Path run : runs) {
+                RunReader reader = new RunReader(run);
+                readers.add(reader);
+                if(reader.next())
+                    queue.add(reader);
+            }
+
+            String channelId = null;
+            PayPeriod period = null;
+            ClockIndex index = null; // Null while the pay period is skipped.
+            long previousId = 0;
+            while(!queue.isEmpty()) {
+                RunReader reader = queue.poll();
+                SpilledClock clock = reader.getCurrent();
+                boolean sameChannel = clock.channelId.equals(channelId);
+                if(!sameChannel || clock.id != previousId) {
+                    LocalDate date = Instant.ofEpochMilli(ClockIndex.toEpochMilli(clock.id))
+                            .atZone(timeZone).toLocalDate();
+                    if(!sameChannel || date.isAfter(period.getEndDate())) {
+                        written += writeSegment(segments, channelId, period, index, timeZone);
+                        channelId = clock.channelId;
+                        period = schedule.getPeriod(anchor, date, timeZone);
+                        // The pay period that has not closed yet is left to the bot.
+                        index = period.isClosed(today) && !segments.contains(channelId, period)
+                                ? new ClockIndex()
+                                : null;
+                    }
+
+                    if(index != null)
+                        index.add(clock.id, clock.authorId, clock.content, clock.mentionIds);
+                    previousId = clock.id;
+                    importedClocks++;
+                }
+
+                if(reader.next())
+                    queue.add(reader);
+            }
+            written += writeSegment(segments, channelId, period, index, timeZone);
+        } finally {
+            for(RunReader reader : readers)
+                reader.close();
+        }
+
+        return written;
+    } // End of writeSegments()
+
+    /**
+     * Calculates the {@link MemberReport}s of a pay period's clocks and writes its {@link ClockSegment}.
+     *
+     * @param segments The {@link SegmentStore} to write to.
+     * @param channelId The id of the channel the clocks are from.
+     * @param period The {@link PayPeriod} of the clocks.
+     * @param index The {@link ClockIndex} of the pay period's clocks, or null if the pay period is skipped.
+     * @param timeZone The timezone the pay period is in.
+     * @return The amount of segments that were written (1 or 0).
+     */
+    private int writeSegment(
+            SegmentStore segments, String channelId, PayPeriod period, ClockIndex index, ZoneId timeZone
+    ) {
+        if(index == null)
+            return 0;
+
+        List<String> userIds = index.getUserIds();
+        userIds.sort(Comparator.comparing(userId -> getName(userId).toLowerCase()));
+
+        List<MemberReport> reports = new ArrayList<>();
+        for(String userId : userIds) {
+            int[] userClocks = index.getClocks(userId, period.getStartDate(), period.getEndDate(), timeZone);
+            int count = 0;
+            for(int row : userClocks)
+                if(index.hasClockWords(row))
+                    userClocks[count++] = row;
+
+            if(count > 0)
+                reports.add(MemberReport.calculate(
+                        index, userId, getName(userId), Arrays.copyOf(userClocks, count), period
+                ));
+        }
+
+        if(reports.isEmpty())
+            return 0;
+        segments.write(new ClockSegment(channelId, period.getStartDate(), period.getEndDate(), index, reports));
+        return 1;
+    } // End of writeSegment()
+
+    /**
+     * @param userId The id of the user.
+     * @return The latest name the user was mentioned with, or the user id if they were never mentioned by name.
+     */
+    private String getName(String userId) {
+        return names.getOrDefault(userId, userId);
+    } // End of getName()
+
+    /**
+     * SpilledClock contains the values of a clock that are written to a run file.
+     */
+    private static class SpilledClock {
+
+        /**
+         * Orders clocks by channel id, then message id.
+         */
+        private static final Comparator<SpilledClock> ORDER = Comparator
+                .<SpilledClock, String>comparing(clock -> clock.channelId)
+                .thenComparingLong(clock -> clock.id);
+
+        /**
+         * The id of the channel the clock was sent in.
+         */
+        private final String channelId;
+
+        /**
+         * The message id of the clock.
+         */
+        private final long id;
+
+        /**
+         * The user id of the clock's author.
+         */
+        private final String authorId;
+
+        /**
+         * The content of the clock.
+         */
+        private final String content;
+
+        /**
+         * The user ids of the users the clock mentions.
+         */
+        private final List<String> mentionIds;
+
+        /**
+         * Creates a {@link SpilledClock}.
+         *
+         * @param channelId The id of the channel the clock was sent in.
+         * @param id The message id of the clock.
+         * @param authorId The user id of the clock's author.
+         * @param content The content of the clock.
+         * @param mentionIds The user ids of the users the clock mentions.
+         */
+        SpilledClock(String channelId, long id, String authorId, String content, List<String> mentionIds) {
+            this.channelId = channelId;
+            this.id = id;
+            this.authorId = authorId;
+            this.content = content;
+            this.mentionIds = mentionIds;
+        }
+
+        /**
+         * Writes the clock to a run file.
+         *
+         * @param out The run file being written.
+         * @throws IOException If the clock could not be written.
+         */
+        void write(DataOutputStream out) throws IOException {
+            out.writeUTF(channelId);
+            out.writeLong(id);
+            out.writeUTF(authorId);
+            out.writeUTF(content);
+            out.writeShort(mentionIds.size());
+            for(String mentionId : mentionIds)
+                out.writeUTF(mentionId);
+        } // End of write()
+
+        /**
+         * Reads a clock written by {@link #write(DataOutputStream)}.
+         *
+         * @param in The run file being read.
+         * @return The {@link SpilledClock} that was read.
+         * @throws IOException If the clock could not be read.
+         */
+        static SpilledClock read(DataInputStream in) throws IOException {
+            String channelId = in.readUTF();
+            long id = in.readLong();
+            String authorId = in.readUTF();
+            String content = in.readUTF();
+            List<String> mentionIds = new ArrayList<>();
+            for(int i = in.readShort(); i > 0; i--)
+                mentionIds.add(in.readUTF());
+            return new SpilledClock(channelId, id, authorId, content, mentionIds);
+        } // End of read()
+    }
+
+    /**
+     * RunReader reads the clocks of one run file in order, one at a time.
+     */
+    private static class RunReader implements Closeable {
+
+        /**
+         * The open run file.
+         */
+        private final DataInputStream in;
+
+        /**
+         * The amount of clocks not read yet.
+         */
+        private int remaining;
+
+        /**
+         * The clock that was read last.
+         */
+        private SpilledClock current;
+
+        /**
+         * Opens a run file.
+         *
+         * @param run The run file.
+         * @throws IOException If the file could not be opened.
+         */
+        RunReader(Path run) throws IOException {
+            in = new DataInputStream(new BufferedInputStream(Files.newInputStream(run)));
+            remaining = in.readInt();
+        }
+
+        /**
+         * Reads the next clock.
+         *
+         * @return Whether there was a clock left to read.
+         * @throws IOException If the clock could not be read.
+         */
+        boolean next() throws IOException {
+            if(remaining == 0)
+                return false;
+            current = SpilledClock.read(in);
+            remaining--;
+            return true;
+        } // End of next()
+
+        /**
+         * @return The clock that was read last.
+         */
+        SpilledClock getCurrent() { return current; }
+
+        /**
+         * Closes the run file.
+         *
+         * @throws IOException If the file could not be closed.
+         */
+        @Override
+        public void close() throws IOException {
+            in.close();
+        } // End of close()
+    }
+}
@@ -0,0 +1,268 @@
+import net.dv8tion.jda.core.events.Event;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * IngestQueue takes the message events of one shard off its event thread. A worker thread drains the queue in
+ * batches of up to {@link #batchSize} events, in the order they were received, and hands every batch to the
+ * {@link BatchHandler} at once, so work such as writing the {@link ClockJournal} is done once per batch instead of
+ * once per message. The queue is bounded: while it is full, the shard's event thread waits in
+ * {@link #put(Event)} until the worker makes room, so the gateway is read no faster than messages are handled and
+ * the memory held by waiting events never grows past the capacity. No event is dropped, since a clock that is not
+ * indexed or journaled would be missing from the reports. Values are as follows:<br>
+ * {@link #queue} = The events waiting for the worker, with the time they were queued at.<br>
+ * {@link #batchSize} = The most events handed to the {@link BatchHandler} at once.<br>
+ * {@link #handler} = The {@link BatchHandler} of the batches.
+ * <p>
+ * The backpressure metrics (queue depth and high water mark, how often and how long the event thread waited for
+ * room, batch sizes, queue wait, and handling time) are printed every {@link #REPORT_INTERVAL} milliseconds while
+ * events are coming in.
+ */
+class IngestQueue {
+
+    /**
+     * How many milliseconds apart the metrics are printed while events are coming in.
+     */
+    private static final long REPORT_INTERVAL = 60000;
+
+    /**
+     * BatchHandler handles the batches drained from the queue.
+     */
+    interface BatchHandler {
+
+        /**
+         * Handles a batch of events.
+         *
+         * @param batch The events, in the order they were received.
+         */
+        void handle(List<Event> batch);
+    }
+
+    /**
+     * The events waiting for the worker, with the time they were queued at.
+     */
+    private final ArrayBlockingQueue<Queued> queue;
+
+    /**
+     * The most events handed to the {@link #handler} at once.
+     */
+    private final int batchSize;
+
+    /**
+     * The {@link BatchHandler} of the batches.
+     */
+    private final BatchHandler handler;
+
+    /**
+     * The name of the queue, used in its worker thread's name and its metrics.
+     */
+    private final String name;
+
+    /**
+     * The most events that have been waiting in the queue at once.
+     */
+    private int highWaterMark = 0;
+
+    /**
+     * The amount of events that had to wait for room in the queue.
+     */
+    private long blocked = 0;
+
+    /**
+     * The time (in nanoseconds) the event thread has waited for room in the queue.
+     */
+    private long blockedTime = 0;
+
+    /**
+     * The longest time (in nanoseconds) the event thread waited for room in the queue.
+     */
+    private long longestBlock = 0;
+
+    /**
+     * The amount of events handled by the worker.
+     */
+    private long handled = 0;
+
+    /**
+     * The amount of batches handled by the worker.
+     */
+    private long batches = 0;
+
+    /**
+     * The size of the largest batch.
+     */
+    private int largestBatch = 0;
+
+    /**
+     * The longest time (in nanoseconds) an event waited in the queue since the metrics were last printed.
+     */
+    private long longestWait = 0;
+
+    /**
+     * The time (in nanoseconds) spent handling batches since the metrics were last printed.
+     */
+    private long handlingTime = 0;
+
+    /**
+     * The amount of batches handled since the metrics were last printed.
+     */
+    private long recentBatches = 0;
+
+    /**
+     * Creates an {@link IngestQueue} and starts its worker thread.
+     *
+     * @param name The name of the queue, used in its worker thread's name and its metrics.
+     * @param capacity The most events that can wait in the queue.
+     * @param batchSize The most events handed to the {@link BatchHandler} at once.
+     * @param handler The {@link BatchHandler} of the batches.
+     */
+    IngestQueue(String name, int capacity, int batchSize, BatchHandler handler) {
+        this.name = name;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.handler = handler;
+
+        Thread worker = new Thread(this::work, name);
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Queues the event for the worker, waiting for room if the queue is full. Events are queued in the order this is
+     * called in, since each shard calls it from its one event thread.
+     *
+     * @param event The event to queue.
+     */
+    void put(Event event) {
+        Queued queued = new Queued(event, System.nanoTime());
+        if(!queue.offer(queued)) {
+            try {
+                queue.put(queued);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                System.out.println("Interrupted while waiting for room in " + name + "; a message was not handled! "
+                        + "Cause: " + e.getMessage());
+                return;
+            }
+            long waited = System.nanoTime() - queued.queuedAt;
+            synchronized (this) {
+                blocked++;
+                blockedTime += waited;
+                longestBlock = Math.max(longestBlock, waited);
+            }
+        }
+        synchronized (this) {
+            highWaterMark = Math.max(highWaterMark, queue.size());
+        }
+    } // End of put()
+
+    /**
+     * Drains the queue in batches until the thread is interrupted.
+     */
+    private void work() {
+        List<Queued> drained = new ArrayList<>(batchSize);
+        List<Event> batch = new ArrayList<>(batchSize);
+        long lastReport = System.nanoTime();
+        while(!Thread.currentThread().isInterrupted()) {
+            try {
+                Queued first = queue.poll(REPORT_INTERVAL, TimeUnit.MILLISECONDS);
+                if(first != null) {
+                    drained.add(first);
+                    queue.drainTo(drained, batchSize - 1);
+                }
+                if(!drained.isEmpty()) {
+                    handle(drained, batch);
+                    drained.clear();
+                    batch.clear();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            long now = System.nanoTime();
+            if(now - lastReport >= TimeUnit.MILLISECONDS.toNanos(REPORT_INTERVAL)) {
+                if(recentBatches > 0)
+                    System.out.println(getMetrics());
+                synchronized (this) {
+                    longestWait = 0;
+                    handlingTime = 0;
+                    recentBatches = 0;
+                }
+                lastReport = now;
+            }
+        }
+    } // End of work()
+
+    /**
+     * Hands a drained batch to the {@link #handler} and records its metrics.
+     *
+     * @param drained The drained events, with the time they were queued at.
+     * @param batch The list the events are handed over in.
+     */
+    private void handle(List<Queued> drained, List<Event> batch) {
+        long start = System.nanoTime();
+        long wait = 0;
+        for(Queued queued : drained) {
+            batch.add(queued.event);
+            wait = Math.max(wait, start - queued.queuedAt);
+        }
+
+        try {
+            handler.handle(batch);
+        } catch (Exception e) {
+            System.out.println("Failed to handle " + batch.size() + " messages! Cause: " + e.getMessage());
+        }
+
+        synchronized (this) {
+            handled += batch.size();
+            batches++;
+            recentBatches++;
+            largestBatch = Math.max(largestBatch, batch.size());
+            longestWait = Math.max(longestWait, wait);
+            handlingTime += System.nanoTime() - start;
+        }
+    } // End of handle()
+
+    /**
+     * @return The backpressure metrics of the queue as one line.
+     */
+    synchronized String getMetrics() {
+        return String.format(
+                "%s: %d/%d queued (high water %d), %d waited for room (%.1f ms in total, longest %.1f ms), %d messages "
+                        + "in %d batches (largest %d), longest wait %.1f ms, average batch %.1f ms",
+                name, queue.size(), queue.size() + queue.remainingCapacity(), highWaterMark, blocked,
+                blockedTime / 1e6, longestBlock / 1e6, handled,
+                batches, largestBatch, longestWait / 1e6, recentBatches > 0 ? handlingTime / 1e6 / recentBatches : 0.0
+        );
+    } // End of getMetrics()
+
+    /**
+     * Queued contains an event and the time it was queued at.
+     */
+    private static class Queued {
+
+        /**
+         * The queued event.
+         */
+        private final Event event;
+
+        /**
+         * The {@link System#nanoTime()} the event was queued at.
+         */
+        private final long queuedAt;
+
+        /**
+         * Creates a {@link Queued} event.
+         *
+         * @param event The queued event.
+         * @param queuedAt The {@link System#nanoTime()} the event was queued at.
+         */
+        Queued(Event event, long queuedAt) {
+            this.event = event;
+            this.queuedAt = queuedAt;
+        }
+    }
+}
@@ -0,0 +1,202 @@
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * MemberReport contains the values calculated for one member by the '/times MM/dd/yy' command. Values are as
+ * follows:<br>
+ * {@link #userId} = The user id of the member the report is for.<br>
+ * {@link #name} = The effective name of the member when the report was calculated.<br>
+ * {@link #clocks} = The {@link ClockIndex} rows of the member's clocks, oldest to newest.<br>
+ * {@link #weekHours} = The calculated hours of each week of the pay period.<br>
+ * {@link #invalidClocks} = The rows of the member's invalid clock ins/outs.<br>
+ * {@link #singleClocks} = The rows of the member's single clock ins/outs.
+ */
+class MemberReport {
+
+    /**
+     * The user id of the member the report is for.
+     */
+    private final String userId;
+
+    /**
+     * The effective name of the member when the report was calculated.
+     */
+    private final String name;
+
+    /**
+     * The {@link ClockIndex} rows of the member's clocks, oldest to newest.
+     */
+    private final int[] clocks;
+
+    /**
+     * The calculated hours of each week of the pay period.
+     */
+    private final double[] weekHours;
+
+    /**
+     * The rows of the member's invalid clock ins/outs.
+     */
+    private final BitSet invalidClocks = new BitSet();
+
+    /**
+     * The rows of the member's single clock ins/outs.
+     */
+    private final BitSet singleClocks = new BitSet();
+
+    /**
+     * Creates a {@link MemberReport} for the passed in member and clocks.
+     *
+     * @param userId The user id of the member the report is for.
+     * @param name The effective name of the member.
+     * @param clocks The {@link ClockIndex} rows of the member's clocks, oldest to newest.
+     * @param weeks The amount of weeks in the pay period.
+     */
+    MemberReport(String userId, String name, int[] clocks, int weeks) {
+        this.userId = userId;
+        this.name = name;
+        this.clocks = clocks;
+        this.weekHours = new double[weeks];
+    }
+
+    /**
+     * Calculates the hours of each week of the {@link PayPeriod} for a member's clocks. The clocks are binned into the
+     * weeks in a single pass and every week is only calculated once.
+     *
+     * @param index The {@link ClockIndex} that contains the rows.
+     * @param userId The user id of the member who's times are being calculated.
+     * @param name The effective name of the member.
+     * @param listOfClocks The rows of the member that contain the clock in and out times, oldest to newest.
+     * @param period The {@link PayPeriod} the clocks are from.
+     * @return The {@link MemberReport} of the member.
+     */
+    static MemberReport calculate(
+            ClockIndex index, String userId, String name, int[] listOfClocks, PayPeriod period
+    ) {
+        int[][] clocks = period.binClocks(index, listOfClocks);
+        MemberReport report = new MemberReport(userId, name, listOfClocks, clocks.length);
+
+        for(int week = 0; week < clocks.length; week++)
+            report.setWeekHours(week, report.getTimeDifferences(index, clocks[week]));
+
+        return report;
+    } // End of calculate()
+
+    /**
+     * Sets the calculated hours of a week.
+     *
+     * @param week The week of the pay period, starting at 0.
+     * @param hours The calculated hours.
+     */
+    void setWeekHours(int week, double hours) { weekHours[week] = hours; }
+
+    /**
+     * @return The {@link #userId} of the {@link MemberReport}.
+     */
+    String getUserId() { return userId; }
+
+    /**
+     * @return The {@link #name} of the {@link MemberReport}.
+     */
+    String getName() { return name; }
+
+    /**
+     * @return The {@link #clocks} of the {@link MemberReport}.
+     */
+    int[] getClocks() { return clocks; }
+
+    /**
+     * @param week The week of the pay period, starting at 0.
+     * @return The calculated hours of the week.
+     */
+    double getWeekHours(int week) { return weekHours[week]; }
+
+    /**
+     * @return The amount of weeks in the pay period.
+     */
+    int getWeekCount() { return weekHours.length; }
+
+    /**
+     * @return The calculated hours of every week combined.
+     */
+    double getTotalHours() {
+        double total = 0;
+        for(double hours : weekHours)
+            total += hours;
+        return total;
+    } // End of getTotalHours()
+
+    /**
+     * @return The {@link #invalidClocks} of the {@link MemberReport}.
+     */
+    BitSet getInvalidClocks() { return invalidClocks; }
+
+    /**
+     * @return The {@link #singleClocks} of the {@link MemberReport}.
+     */
+    BitSet getSingleClocks() { return singleClocks; }
+
+    /**
+     * Gets the time differences between in and out clocks from the valid rows received from
+     * {@link #createDiscordClocks(ClockIndex, int[])} after passing in the rows (param clocks).
+     * Also adds single clocks to {@link #singleClocks} (a clock-in missing a clock-out) for future logging.
+     *
+     * @param index The {@link ClockIndex} that contains the rows.
+     * @param clocks The rows that contain the clock ins/outs from Discord, oldest to newest.
+     * @return The calculated hours between the passed in clocks.
+     */
+    private double getTimeDifferences(ClockIndex index, int[] clocks) {
+        BitSet singles = new BitSet();
+
+        int[] dClocks = createDiscordClocks(index, clocks);
+        int total = 0; // In quarter hours.
+
+        for(int i = 0; i < dClocks.length - 1; i++) {
+            if(index.isClockIn(dClocks[i])) {
+                if (!index.isClockIn(dClocks[i + 1]))
+                    total += index.getTime(dClocks[i + 1]) - index.getTime(dClocks[i]);
+                else
+                    singles.set(dClocks[i]);
+            }
+            else if(!index.isClockIn(dClocks[i + 1]))
+                singles.set(dClocks[i + 1]);
+        }
+
+        // Last clock is not checked in loop above.
+        if(dClocks.length > 0 && index.isClockIn(dClocks[dClocks.length - 1]))
+            singles.set(dClocks[dClocks.length - 1]);
+
+        // If the first clock is an out, that means it is missing the in for it. Also not checked in loop above.
+        if(dClocks.length > 0 && !index.isClockIn(dClocks[0]))
+            singles.set(dClocks[0]);
+
+        singleClocks.or(singles);
+
+        return total / 4.0;
+    } // End of getTimeDifferences()
+
+    /**
+     * Gets the rows that have a valid clock time from the rows passed in. It also adds invalid clock ins/outs to
+     * {@link #invalidClocks} for future logging.
+     *
+     * @param index The {@link ClockIndex} that contains the rows.
+     * @param clocks The rows that contain the clock ins/outs from Discord.
+     * @return The valid rows to be used for time calculations in
+     * {@link #getTimeDifferences(ClockIndex, int[])}.
+     */
+    private int[] createDiscordClocks(ClockIndex index, int[] clocks) {
+        BitSet invalidClockRows = new BitSet();
+        int[] dClocks = new int[clocks.length];
+        int count = 0;
+
+        for(int row : clocks) {
+            if(index.getTime(row) == DiscordClock.INVALID_TIME)
+                invalidClockRows.set(row);
+            else
+                dClocks[count++] = row;
+        }
+
+        invalidClocks.or(invalidClockRows);
+
+        return Arrays.copyOf(dClocks, count);
+    } // End of createDiscordClocks()
+}
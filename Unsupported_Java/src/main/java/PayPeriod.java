@@ -0,0 +1,158 @@
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * PayPeriod contains the days of one pay period and the weeks (buckets) its hours are totaled in. Every bucket is
+ * at most {@link #BUCKET_DAYS} long. Buckets either count {@link #BUCKET_DAYS} from the first day, so only the last
+ * one is shorter when the pay period is not a whole number of weeks, or follow the calendar weeks (starting on
+ * {@link #WEEK_START}), so only the first and last ones are partial weeks; month based pay periods use the latter
+ * instead of ending in a 1 to 3 day "week". The bucket bounds are calculated once, so each clock is binned with a
+ * single binary search. Values are as follows:<br>
+ * {@link #startDate} = The first day of the pay period.<br>
+ * {@link #endDate} = The last day of the pay period.<br>
+ * {@link #bucketStarts} = The epoch minute each bucket starts at, followed by the epoch minute the pay period ends at.
+ * <br>
+ * {@link #labels} = The "start - end" label of each bucket.
+ */
+class PayPeriod {
+
+    /**
+     * The most days in a bucket.
+     */
+    private static final int BUCKET_DAYS = 7;
+
+    /**
+     * The first day of a calendar week.
+     */
+    private static final DayOfWeek WEEK_START = DayOfWeek.SUNDAY;
+
+    /**
+     * Formatter for the days in the bucket labels.
+     */
+    private static final DateTimeFormatter LABEL_FORMAT = DateTimeFormatter.ofPattern("MM/dd/yy (E)");
+
+    /**
+     * The first day of the pay period.
+     */
+    private final LocalDate startDate;
+
+    /**
+     * The last day of the pay period.
+     */
+    private final LocalDate endDate;
+
+    /**
+     * The epoch minute each bucket starts at, followed by the epoch minute the pay period ends at.
+     */
+    private final long[] bucketStarts;
+
+    /**
+     * The "start - end" label of each bucket.
+     */
+    private final String[] labels;
+
+    /**
+     * Creates a {@link PayPeriod} and calculates its bucket bounds.
+     *
+     * @param startDate The first day of the pay period.
+     * @param endDate The last day of the pay period.
+     * @param timeZone The timezone the days are in.
+     * @param calendarWeeks Whether the buckets follow the calendar weeks instead of counting from the first day.
+     */
+    PayPeriod(LocalDate startDate, LocalDate endDate, ZoneId timeZone, boolean calendarWeeks) {
+        this.startDate = startDate;
+        this.endDate = endDate;
+
+        List<LocalDate> starts = new ArrayList<>();
+        for(LocalDate day = startDate; !day.isAfter(endDate); day = calendarWeeks
+                ? day.with(TemporalAdjusters.next(WEEK_START))
+                : day.plusDays(BUCKET_DAYS))
+            starts.add(day);
+
+        int buckets = starts.size();
+        bucketStarts = new long[buckets + 1];
+        labels = new String[buckets];
+        for(int bucket = 0; bucket < buckets; bucket++) {
+            LocalDate bucketStart = starts.get(bucket);
+            LocalDate bucketEnd = bucket + 1 < buckets ? starts.get(bucket + 1).minusDays(1) : endDate;
+
+            bucketStarts[bucket] = bucketStart.atStartOfDay(timeZone).toEpochSecond() / 60;
+            labels[bucket] = LABEL_FORMAT.format(bucketStart) + " - " + LABEL_FORMAT.format(bucketEnd);
+        }
+        bucketStarts[buckets] = endDate.plusDays(1).atStartOfDay(timeZone).toEpochSecond() / 60;
+    }
+
+    /**
+     * Gets the bucket that contains the epoch minute.
+     *
+     * @param minute The epoch minute.
+     * @return The bucket, starting at 0, or -1 if the minute is not within the pay period.
+     */
+    int getBucket(long minute) {
+        int position = Arrays.binarySearch(bucketStarts, minute);
+        int bucket = position >= 0 ? position : -position - 2;
+        return bucket < labels.length ? bucket : -1;
+    } // End of getBucket()
+
+    /**
+     * Splits the rows into the pay period's buckets in a single pass. Rows outside the pay period are left out.
+     *
+     * @param index The {@link ClockIndex} that contains the rows.
+     * @param clocks The rows of the clocks, oldest to newest.
+     * @return The rows of each bucket, oldest to newest.
+     */
+    int[][] binClocks(ClockIndex index, int[] clocks) {
+        int[] buckets = new int[clocks.length];
+        int[] counts = new int[labels.length];
+        for(int i = 0; i < clocks.length; i++) {
+            buckets[i] = getBucket(index.getMinute(clocks[i]));
+            if(buckets[i] >= 0)
+                counts[buckets[i]]++;
+        }
+
+        int[][] binned = new int[labels.length][];
+        for(int bucket = 0; bucket < labels.length; bucket++)
+            binned[bucket] = new int[counts[bucket]];
+        Arrays.fill(counts, 0);
+        for(int i = 0; i < clocks.length; i++)
+            if(buckets[i] >= 0)
+                binned[buckets[i]][counts[buckets[i]]++] = clocks[i];
+
+        return binned;
+    } // End of binClocks()
+
+    /**
+     * @param today The current day.
+     * @return Whether the pay period has ended before the current day, so its clocks can no longer change.
+     */
+    boolean isClosed(LocalDate today) {
+        return endDate.isBefore(today);
+    } // End of isClosed()
+
+    /**
+     * @return The {@link #startDate} of the {@link PayPeriod}.
+     */
+    LocalDate getStartDate() { return startDate; }
+
+    /**
+     * @return The {@link #endDate} of the {@link PayPeriod}.
+     */
+    LocalDate getEndDate() { return endDate; }
+
+    /**
+     * @return The amount of buckets in the pay period.
+     */
+    int getBucketCount() { return labels.length; }
+
+    /**
+     * @param bucket The bucket, starting at 0.
+     * @return The "start - end" label of the bucket.
+     */
+    String getLabel(int bucket) { return labels[bucket]; }
+}
@@ -0,0 +1,180 @@
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+/**
+ * PaySchedule defines how a channel's clocks are split into {@link PayPeriod}s; initialized by the bot.properties
+ * file. Values are as follows:<br>
+ * {@link #type} = The kind of schedule.<br>
+ * {@link #amount} = The length in days of a {@link Type#WEEKLY}, {@link Type#BI_WEEKLY} or {@link Type#CUSTOM} pay
+ * period, or the day of the month a {@link Type#MONTHLY} pay period starts on.
+ * <p>
+ * Fixed length pay periods repeat every length from an anchor date (the first day of any pay period, set in
+ * bot.properties). Semi-monthly pay periods always run from the 1st to the 15th and from the 16th to the end of the
+ * month, and monthly pay periods from the anchor day to the day before it in the next month. A date given to a
+ * command picks the pay period that contains it, so every date of a pay period finds the same pay period. Without an
+ * anchor date, fixed length pay periods have no boundaries and start on the date given to a command; see
+ * {@link #isAnchored(LocalDate)}.
+ */
+class PaySchedule {
+
+    /**
+     * The kinds of schedules.
+     */
+    enum Type { WEEKLY, BI_WEEKLY, SEMI_MONTHLY, MONTHLY, CUSTOM }
+
+    /**
+     * The last day a monthly pay period can start on, so every month has the day.
+     */
+    private static final int MAX_ANCHOR_DAY = 28;
+
+    /**
+     * The kind of schedule.
+     */
+    private final Type type;
+
+    /**
+     * The length in days of a fixed length pay period, or the day of the month a monthly pay period starts on.
+     */
+    private final int amount;
+
+    /**
+     * Creates a {@link PaySchedule}.
+     *
+     * @param type The kind of schedule.
+     * @param amount The length in days of a fixed length pay period, or the day of the month a monthly pay period
+     *               starts on.
+     */
+    private PaySchedule(Type type, int amount) {
+        this.type = type;
+        this.amount = amount;
+    }
+
+    /**
+     * Parses a schedule from bot.properties: "WEEKLY", "BI_WEEKLY", "SEMI_MONTHLY", "MONTHLY", "MONTHLY day" (the
+     * day of the month it starts on, 1 to 28) or "CUSTOM days" (the length of the pay period in days).
+     *
+     * @param definition The schedule as text.
+     * @return The {@link PaySchedule}.
+     * @throws IllegalArgumentException If the schedule is not one of the above.
+     */
+    static PaySchedule parse(String definition) {
+        String[] parts = definition.trim().split("\\s+");
+        Type type = Type.valueOf(parts[0].toUpperCase());
+        int amount = parts.length > 1 ? Integer.parseInt(parts[1]) : 0;
+
+        switch (type) {
+            case WEEKLY:
+                return new PaySchedule(type, 7);
+            case BI_WEEKLY:
+                return new PaySchedule(type, 14);
+            case SEMI_MONTHLY:
+                return new PaySchedule(type, 0);
+            case MONTHLY:
+                if(parts.length == 1)
+                    amount = 1;
+                if(amount < 1 || amount > MAX_ANCHOR_DAY)
+                    throw new IllegalArgumentException("Monthly pay periods must start on day 1 to " + MAX_ANCHOR_DAY);
+                return new PaySchedule(type, amount);
+            default:
+                if(amount < 1)
+                    throw new IllegalArgumentException("Custom pay periods need a length of at least 1 day.");
+                return new PaySchedule(type, amount);
+        }
+    } // End of parse()
+
+    /**
+     * @return The default schedule: two weeks, repeating from the anchor date.
+     */
+    static PaySchedule biWeekly() {
+        return new PaySchedule(Type.BI_WEEKLY, 14);
+    } // End of biWeekly()
+
+    /**
+     * Gets the pay period that contains the date, where fixed length pay periods repeat every length from the anchor.
+     *
+     * @param anchor The start of any pay period, or null if none is set (fixed length pay periods then start on the
+     *               date).
+     * @param date The date to find the pay period of.
+     * @param timeZone The timezone the days are in.
+     * @return The {@link PayPeriod} that contains the date.
+     */
+    PayPeriod getPeriod(LocalDate anchor, LocalDate date, ZoneId timeZone) {
+        if(!isFixedLength() || anchor == null)
+            return createPeriod(date, timeZone);
+
+        long periodsBack = Math.floorDiv(anchor.toEpochDay() - date.toEpochDay() + amount - 1, amount);
+        return createPeriod(anchor.minusDays(periodsBack * amount), timeZone);
+    } // End of getPeriod()
+
+    /**
+     * @param period A {@link PayPeriod} of this schedule.
+     * @param timeZone The timezone the days are in.
+     * @return The {@link PayPeriod} that starts the day after the passed in one ends.
+     */
+    PayPeriod getNext(PayPeriod period, ZoneId timeZone) {
+        return createPeriod(period.getEndDate().plusDays(1), timeZone);
+    } // End of getNext()
+
+    /**
+     * @param anchor The start of any pay period, or null if none is set.
+     * @return Whether the pay periods have fixed boundaries, so they can be compacted, finalized, and imported.
+     */
+    boolean isAnchored(LocalDate anchor) {
+        return anchor != null || !isFixedLength();
+    } // End of isAnchored()
+
+    /**
+     * Creates the pay period that the date refers to. Pay periods of the month based schedules are split into their
+     * calendar weeks, since they are not a whole number of weeks long.
+     *
+     * @param date A day of a month based pay period, or the first day of a fixed length one.
+     * @param timeZone The timezone the days are in.
+     * @return The {@link PayPeriod}.
+     */
+    private PayPeriod createPeriod(LocalDate date, ZoneId timeZone) {
+        LocalDate startDate = getStartDate(date);
+        return new PayPeriod(startDate, getEndDate(startDate), timeZone, !isFixedLength());
+    } // End of createPeriod()
+
+    /**
+     * @param date A day of a month based pay period, or the first day of a fixed length one.
+     * @return The first day of the pay period the date refers to.
+     */
+    private LocalDate getStartDate(LocalDate date) {
+        switch (type) {
+            case SEMI_MONTHLY:
+                return date.withDayOfMonth(date.getDayOfMonth() < 16 ? 1 : 16);
+            case MONTHLY:
+                return date.getDayOfMonth() >= amount
+                        ? date.withDayOfMonth(amount)
+                        : date.minusMonths(1).withDayOfMonth(amount);
+            default:
+                return date;
+        }
+    } // End of getStartDate()
+
+    /**
+     * @param startDate The first day of a pay period.
+     * @return The last day of the pay period.
+     */
+    private LocalDate getEndDate(LocalDate startDate) {
+        switch (type) {
+            case SEMI_MONTHLY:
+                return startDate.getDayOfMonth() == 1
+                        ? startDate.withDayOfMonth(15)
+                        : startDate.withDayOfMonth(startDate.lengthOfMonth());
+            case MONTHLY:
+                return startDate.plusMonths(1).minusDays(1);
+            default:
+                // Example: Saturday (01/07) -> Friday (01/20) | Sat (01/21) would be a new pay period.
+                return startDate.plusDays(amount - 1);
+        }
+    } // End of getEndDate()
+
+    /**
+     * @return Whether every pay period has the same length.
+     */
+    private boolean isFixedLength() {
+        return type != Type.SEMI_MONTHLY && type != Type.MONTHLY;
+    } // End of isFixedLength()
+}
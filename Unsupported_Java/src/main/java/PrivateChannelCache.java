@@ -0,0 +1,121 @@
+import net.dv8tion.jda.core.entities.PrivateChannel;
+import net.dv8tion.jda.core.entities.User;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PrivateChannelCache keeps the {@link PrivateChannel}s that were opened by one shard, so sending a {@link User}
+ * several private messages only opens their channel once. Channels are opened with a queued request instead of
+ * blocking, and a {@link User} that is sent messages while their channel is still being opened waits for that same
+ * request. Values are as follows:<br>
+ * {@link #capacity} = The most {@link User}s the cache keeps a channel of.<br>
+ * {@link #expiry} = How long (in nanoseconds) a channel is kept after it was opened.<br>
+ * {@link #channels} = The {@link Entry} of each user id, least recently used first.
+ */
+class PrivateChannelCache {
+
+    /**
+     * The most {@link User}s the cache keeps a channel of; the least recently used one is dropped after that.
+     */
+    private final int capacity;
+
+    /**
+     * How long (in nanoseconds) a channel is kept after it was opened.
+     */
+    private final long expiry;
+
+    /**
+     * The {@link Entry} of each user id, least recently used first.
+     */
+    private final LinkedHashMap<String, Entry> channels;
+
+    /**
+     * Creates an empty {@link PrivateChannelCache}.
+     *
+     * @param capacity The most {@link User}s the cache keeps a channel of.
+     * @param expiry How long a channel is kept after it was opened.
+     * @param unit The {@link TimeUnit} of the expiry.
+     */
+    PrivateChannelCache(int capacity, long expiry, TimeUnit unit) {
+        this.capacity = capacity;
+        this.expiry = unit.toNanos(expiry);
+        this.channels = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > PrivateChannelCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * Gets the {@link User}'s {@link PrivateChannel}, opening it if it is not cached or has expired. A channel that
+     * could not be opened is not cached, so the next message tries again.
+     *
+     * @param user The {@link User} to get the channel of.
+     * @return A {@link CompletableFuture} of the {@link User}'s {@link PrivateChannel}.
+     */
+    CompletableFuture<PrivateChannel> get(User user) {
+        String userId = user.getId();
+        Entry entry;
+        synchronized (this) {
+            entry = channels.get(userId);
+            if(entry != null && System.nanoTime() - entry.openedAt < expiry)
+                return entry.channel;
+
+            entry = new Entry(new CompletableFuture<>(), System.nanoTime());
+            channels.put(userId, entry);
+        }
+
+        Entry opening = entry;
+        try {
+            user.openPrivateChannel().queue(opening.channel::complete, e -> fail(userId, opening, e));
+        } catch (RuntimeException e) {
+            fail(userId, opening, e);
+        }
+        return opening.channel;
+    } // End of get()
+
+    /**
+     * Fails an {@link Entry} that could not be opened and drops it if it is still cached.
+     *
+     * @param userId The id of the {@link User}.
+     * @param entry The {@link Entry} that could not be opened.
+     * @param e The reason it could not be opened.
+     */
+    private void fail(String userId, Entry entry, Throwable e) {
+        synchronized (this) {
+            channels.remove(userId, entry);
+        }
+        entry.channel.completeExceptionally(e);
+    } // End of fail()
+
+    /**
+     * Entry contains a {@link PrivateChannel} that is opened or being opened and the time it was requested.
+     */
+    private static class Entry {
+
+        /**
+         * The {@link PrivateChannel} that is opened or being opened.
+         */
+        private final CompletableFuture<PrivateChannel> channel;
+
+        /**
+         * The {@link System#nanoTime()} the channel was requested at.
+         */
+        private final long openedAt;
+
+        /**
+         * Creates an {@link Entry}.
+         *
+         * @param channel The {@link PrivateChannel} that is opened or being opened.
+         * @param openedAt The {@link System#nanoTime()} the channel was requested at.
+         */
+        Entry(CompletableFuture<PrivateChannel> channel, long openedAt) {
+            this.channel = channel;
+            this.openedAt = openedAt;
+        }
+    }
+}
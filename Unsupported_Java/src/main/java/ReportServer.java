@@ -0,0 +1,231 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.zip.CRC32;
+
+/**
+ * ReportServer serves the rendered '/times MM/dd/yy' reports and '/anomalies' pages over HTTP, so the link in
+ * {@link TimeTracker}'s messages (LOG_URL) can point straight at the bot. Pages are rendered once when their report
+ * is calculated and kept as bytes with an ETag; requests never calculate or render anything, and a request with a
+ * matching "If-None-Match" header is answered with "304 Not Modified" and no body. Values are as follows:<br>
+ * {@link #server} = The {@link HttpServer} answering the requests.<br>
+ * {@link #key} = The random key the pages' paths are signed with.<br>
+ * {@link #pages} = The rendered {@link Page}s by path, least recently published first.
+ * <p>
+ * The pages hold every member's hours and are not behind a login, so there is no page listing the others and each
+ * page's path starts with a signature of its name (see {@link #getPath(String)}). A page can only be found through
+ * the link the bot sends. The key is made again on every start, together with the pages, which are only kept in
+ * memory. Only the latest {@link #MAX_PAGES} published pages are kept.
+ */
+class ReportServer {
+
+    /**
+     * The amount of threads answering requests.
+     */
+    private static final int THREADS = 4;
+
+    /**
+     * The most pages kept; the least recently published page is dropped first.
+     */
+    private static final int MAX_PAGES = 1000;
+
+    /**
+     * The amount of bytes of a path's signature.
+     */
+    private static final int SIGNATURE_BYTES = 16;
+
+    /**
+     * The {@link HttpServer} answering the requests.
+     */
+    private final HttpServer server;
+
+    /**
+     * The random key the pages' paths are signed with.
+     */
+    private final byte[] key = new byte[32];
+
+    /**
+     * The rendered {@link Page}s by path, least recently published first.
+     */
+    private final LinkedHashMap<String, Page> pages = new LinkedHashMap<String, Page>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Page> eldest) {
+            return size() > MAX_PAGES;
+        }
+    };
+
+    /**
+     * Creates a {@link ReportServer} listening on the address and port. It does not answer requests until
+     * {@link #start()}.
+     *
+     * @param host The address to listen on, or "" for every address of the machine.
+     * @param port The port to listen on.
+     * @throws IOException If the port could not be opened.
+     */
+    ReportServer(String host, int port) throws IOException {
+        new SecureRandom().nextBytes(key);
+        server = HttpServer.create(host.isEmpty() ? new InetSocketAddress(port) : new InetSocketAddress(host, port), 0);
+        server.createContext("/", this::handle);
+        server.setExecutor(Executors.newFixedThreadPool(THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "TimeTracker-HTTP");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    /**
+     * Starts answering requests.
+     */
+    void start() {
+        server.start();
+    } // End of start()
+
+    /**
+     * Replaces the page with the name. The page keeps its ETag if its content did not change.
+     *
+     * @param name The name of the page, starting with "/".
+     * @param title The title of the page.
+     * @param body The HTML inside the page's body. Text from Discord must already be {@link #escape(String)}d.
+     */
+    void publish(String name, String title, String body) {
+        String html = "<!DOCTYPE html>\n<html><head><meta charset=\"utf-8\"><title>" + escape(title) + "</title>"
+                + "</head>\n<body>\n<h2>" + escape(title) + "</h2>\n" + body + "</body></html>\n";
+        Page page = new Page(html.getBytes(StandardCharsets.UTF_8));
+        String path = getPath(name);
+        synchronized (pages) {
+            // Removed first so the page counts as the most recently published one.
+            pages.remove(path);
+            pages.put(path, page);
+        }
+    } // End of publish()
+
+    /**
+     * Gets the path the page with the name is served at: the hex signature of the name, followed by the name, for
+     * example "/3f...9a/reports/123/2018-01-01_2018-01-14".
+     *
+     * @param name The name of the page, starting with "/".
+     * @return The path of the page.
+     */
+    String getPath(String name) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(key, "HmacSHA256"));
+            byte[] signature = mac.doFinal(name.getBytes(StandardCharsets.UTF_8));
+
+            StringBuilder path = new StringBuilder("/");
+            for(int i = 0; i < SIGNATURE_BYTES; i++)
+                path.append(String.format("%02x", signature[i]));
+            return path.append(name).toString();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available.", e);
+        }
+    } // End of getPath()
+
+    /**
+     * Escapes the characters that have a meaning in HTML.
+     *
+     * @param text The text to escape.
+     * @return The escaped text.
+     */
+    static String escape(String text) {
+        StringBuilder str = new StringBuilder(text.length());
+        for(int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '<': str.append("&lt;"); break;
+                case '>': str.append("&gt;"); break;
+                case '&': str.append("&amp;"); break;
+                case '"': str.append("&quot;"); break;
+                case '\'': str.append("&#39;"); break;
+                default: str.append(c);
+            }
+        }
+        return str.toString();
+    } // End of escape()
+
+    /**
+     * Answers a request with the page at its path.
+     *
+     * @param exchange The request and its response.
+     * @throws IOException If the response could not be sent.
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String method = exchange.getRequestMethod();
+            if(!method.equals("GET") && !method.equals("HEAD")) {
+                exchange.getResponseHeaders().set("Allow", "GET, HEAD");
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+
+            Page page;
+            synchronized (pages) {
+                page = pages.get(exchange.getRequestURI().getPath());
+            }
+            if(page == null) {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+
+            exchange.getResponseHeaders().set("ETag", page.etag);
+            exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+            String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+            if(ifNoneMatch != null && (ifNoneMatch.contains(page.etag) || ifNoneMatch.trim().equals("*"))) {
+                exchange.sendResponseHeaders(304, -1);
+                return;
+            }
+
+            exchange.getResponseHeaders().set("Content-Type", "text/html; charset=utf-8");
+            if(method.equals("HEAD")) {
+                exchange.getResponseHeaders().set("Content-Length", Integer.toString(page.content.length));
+                exchange.sendResponseHeaders(200, -1);
+                return;
+            }
+            exchange.sendResponseHeaders(200, page.content.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(page.content);
+            }
+        } finally {
+            exchange.close();
+        }
+    } // End of handle()
+
+    /**
+     * Page contains a rendered page and its ETag.
+     */
+    private static class Page {
+
+        /**
+         * The UTF-8 HTML of the page.
+         */
+        private final byte[] content;
+
+        /**
+         * The ETag of the page, made from a checksum of its content.
+         */
+        private final String etag;
+
+        /**
+         * Creates a {@link Page} and calculates its ETag.
+         *
+         * @param content The UTF-8 HTML of the page.
+         */
+        Page(byte[] content) {
+            this.content = content;
+            CRC32 crc = new CRC32();
+            crc.update(content);
+            this.etag = "\"" + Long.toHexString(crc.getValue()) + "-" + Integer.toHexString(content.length) + "\"";
+        }
+    }
+}
@@ -0,0 +1,122 @@
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.function.Predicate;
+
+/**
+ * SegmentStore keeps the {@link ClockSegment} files of closed pay periods in a directory, one sub directory per
+ * channel and one file per pay period (named after its first and last day, so changing the pay schedule never
+ * reads a segment of a different pay period). A segment is deleted again when a clock within it is edited or deleted
+ * (see {@link #removeContaining(String, LocalDate, Predicate)}). Values are as follows:<br>
+ * {@link #directory} = The directory containing the segment files.
+ */
+class SegmentStore {
+
+    /**
+     * The directory containing the segment files.
+     */
+    private final Path directory;
+
+    /**
+     * Creates a {@link SegmentStore} that keeps its files in the passed in directory.
+     *
+     * @param directory The directory containing the segment files.
+     */
+    SegmentStore(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Reads the {@link ClockSegment} of the channel's pay period.
+     *
+     * @param channelId The id of the channel.
+     * @param period The {@link PayPeriod}.
+     * @return The {@link ClockSegment} or null if the pay period has not been compacted (or could not be read).
+     */
+    ClockSegment read(String channelId, PayPeriod period) {
+        Path path = getPath(channelId, period.getStartDate(), period.getEndDate());
+        if(!Files.exists(path))
+            return null;
+
+        try {
+            return ClockSegment.read(path);
+        } catch (IOException e) {
+            System.out.println("Could not read segment " + path + "! Cause: " + e.getMessage());
+            return null;
+        }
+    } // End of read()
+
+    /**
+     * Writes the {@link ClockSegment} if its pay period has not been compacted yet. Segments are never overwritten.
+     *
+     * @param segment The {@link ClockSegment} to write.
+     */
+    void write(ClockSegment segment) {
+        Path path = getPath(segment.getChannelId(), segment.getStartDate(), segment.getEndDate());
+        if(Files.exists(path))
+            return;
+
+        try {
+            segment.write(path);
+        } catch (IOException e) {
+            System.out.println("Could not write segment " + path + "! Cause: " + e.getMessage());
+        }
+    } // End of write()
+
+    /**
+     * Deletes the channel's segments whose pay period contains the day, so a clock edited or deleted after its pay
+     * period was compacted is not ignored; the pay period is compacted again by its next report. Segments that can not
+     * be rebuilt, because the channel's history no longer reaches back to their pay period (such as ones written by
+     * {@link HistoryImporter}), are kept.
+     *
+     * @param channelId The id of the channel.
+     * @param date The day of the edited or deleted clock.
+     * @param rebuildable Checks whether a pay period starting on the passed in day can be rebuilt.
+     * @return The amount of segments that were deleted.
+     */
+    int removeContaining(String channelId, LocalDate date, Predicate<LocalDate> rebuildable) {
+        Path channelDirectory = directory.resolve(channelId);
+        if(!Files.isDirectory(channelDirectory))
+            return 0;
+
+        int removed = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(channelDirectory, "*_*.seg")) {
+            for(Path path : files) {
+                String name = path.getFileName().toString();
+                LocalDate startDate = LocalDate.parse(name.substring(0, name.indexOf('_')));
+                LocalDate endDate = LocalDate.parse(name.substring(name.indexOf('_') + 1, name.length() - 4));
+                if(date.isBefore(startDate) || date.isAfter(endDate))
+                    continue;
+
+                if(!rebuildable.test(startDate))
+                    System.out.println("Keeping segment " + path + "! Cause: The edited clock's history is gone.");
+                else if(Files.deleteIfExists(path))
+                    removed++;
+            }
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Could not remove the segments of " + channelId + "! Cause: " + e.getMessage());
+        }
+        return removed;
+    } // End of removeContaining()
+
+    /**
+     * @param channelId The id of the channel.
+     * @param period The {@link PayPeriod}.
+     * @return Whether the channel's pay period has been compacted.
+     */
+    boolean contains(String channelId, PayPeriod period) {
+        return Files.exists(getPath(channelId, period.getStartDate(), period.getEndDate()));
+    } // End of contains()
+
+    /**
+     * @param channelId The id of the channel.
+     * @param startDate The first day of the pay period.
+     * @param endDate The last day of the pay period.
+     * @return The path of the channel's pay period segment file.
+     */
+    private Path getPath(String channelId, LocalDate startDate, LocalDate endDate) {
+        return directory.resolve(channelId).resolve(startDate + "_" + endDate + ".seg");
+    } // End of getPath()
+}
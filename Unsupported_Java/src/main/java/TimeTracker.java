@@ -1,9 +1,14 @@
 import net.dv8tion.jda.core.AccountType;
+import net.dv8tion.jda.core.JDA;
 import net.dv8tion.jda.core.JDABuilder;
 import net.dv8tion.jda.core.MessageHistory;
 import net.dv8tion.jda.core.Permission;
 import net.dv8tion.jda.core.entities.*;
+import net.dv8tion.jda.core.events.Event;
+import net.dv8tion.jda.core.events.ReadyEvent;
+import net.dv8tion.jda.core.events.message.guild.GuildMessageDeleteEvent;
 import net.dv8tion.jda.core.events.message.guild.GuildMessageReceivedEvent;
+import net.dv8tion.jda.core.events.message.guild.GuildMessageUpdateEvent;
 import net.dv8tion.jda.core.events.message.priv.PrivateMessageReceivedEvent;
 import net.dv8tion.jda.core.exceptions.RateLimitedException;
 import net.dv8tion.jda.core.hooks.ListenerAdapter;
@@ -11,15 +16,25 @@ import net.dv8tion.jda.core.hooks.ListenerAdapter;
 import javax.security.auth.login.LoginException;
 import java.io.*;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
 import java.text.SimpleDateFormat;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.Temporal;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 /**
  * A Discord bot that tracks and logs user messages if they contain clock in/out key words; it then calculates the time
@@ -37,7 +52,7 @@ public class TimeTracker extends ListenerAdapter {
      * Variable that hold's the Bot's name on Discord; initialized via the bot.properties file. Has a default value of
      * "TimeTracker".
      */
-    private static String BOT_NAME = "TimeTracker";
+    static String BOT_NAME = "TimeTracker";
 
     /**
      * The current timezone the bot is running in; initialized via the bot.properties file. Has a default value of
@@ -49,7 +64,7 @@ public class TimeTracker extends ListenerAdapter {
      * {@link ZoneId} used for converting {@link LocalDateTime} into the bot's timezone. Is initialized via the
      * {@link #TIMEZONE} variable.
      */
-    private ZoneId timeZone = TimeZone.getTimeZone(TIMEZONE).toZoneId();
+    private ZoneId timeZone = getTimeZone();
 
     /**
      * Variable that is used to format the timestamp on messages; initialized by the bot.properties file. Has a default
@@ -61,106 +76,207 @@ public class TimeTracker extends ListenerAdapter {
      * Variable that contains the {@link List} of clock in key words; is populated by the bot.properties file. Has the
      * default values of "In" and "On".
      */
-    private static List<String> CLOCK_IN_WORDS = new ArrayList<>(Arrays.asList("In", "On", "Back"));
+    static List<String> CLOCK_IN_WORDS = new ArrayList<>(Arrays.asList("In", "On", "Back"));
 
     /**
      * Variable that contains the {@link List} of clock out key words; is populated by the bot.properties file. Has the
      * default values of "Out" and "Off".
      */
-    private static List<String> CLOCK_OUT_WORDS = new ArrayList<>(Arrays.asList("Out", "Off"));
+    static List<String> CLOCK_OUT_WORDS = new ArrayList<>(Arrays.asList("Out", "Off"));
 
     /**
      * Variable that holds the amount of {@link Message}s to retrieve from a {@link TextChannel}'s history * 100;
      * initialized by the bot.properties file. Has a default value of 3.
      */
-    private static int RETRIEVABLE_MESSAGE_AMOUNT = 3;
+    static int RETRIEVABLE_MESSAGE_AMOUNT = 3;
 
     /**
-     * A {@link HashMap} that contains the {@link Member}s and their respective {@link Message}'s when the
-     * '/times MM/dd/yy' command is used.
+     * Variable that holds the amount of shards (gateway connections) the bot is split into; initialized by the
+     * bot.properties file. Has a default value of 1 (no sharding).
      */
-    private HashMap<Member, List<Message>> tracker = new HashMap<>();
+    private static int SHARD_COUNT = 1;
 
     /**
-     * A {@link HashMap} that contains the {@link Member}'s invalid clock ins/outs. Used in
-     * {@link #logInvalidsToFile(Member)}.
+     * Variable that holds the {@link PaySchedule} clocks are split into {@link PayPeriod}s by; initialized by the
+     * bot.properties file. Has a default value of "BI_WEEKLY".
      */
-    private HashMap<Member, List<Message>> invalidClocks = new HashMap<>();
+    static PaySchedule PAY_SCHEDULE = PaySchedule.biWeekly();
 
     /**
-     * A {@link HashMap} that contains the {@link Member}'s single clock ins/outs. Used in
-     * {@link #logSinglesToFile(Member)}.
+     * Variable that holds the first day of any pay period, which fixed length pay periods repeat from; initialized by
+     * the bot.properties file ('MM/dd/yy'). Has no default value, so fixed length pay periods start on the date given
+     * to a command and are not finalized until one is set.
      */
-    private HashMap<Member, List<Message>> singleClocks = new HashMap<>();
+    static LocalDate PAY_ANCHOR = null;
 
     /**
-     * Global variable for the start date of the two week pay period. Gets set with {@link #setStartDate(String)}.
+     * Variable that holds how many minutes apart the {@link ClockStore} snapshots are written; initialized by the
+     * bot.properties file. Has a default value of 10. A snapshot is also written when the bot shuts down.
      */
-    private Date twoWeekStartDate = new Date();
+    private static int SNAPSHOT_INTERVAL = 10;
 
     /**
-     * Global variable for the end date of the two week pay period. Gets set with {@link #setEndDate(Date)}.
+     * The file the {@link ClockStore} snapshot is written to and restored from.
      */
-    private Date twoWeekEndDate = new Date();
+    private static final Path SNAPSHOT_PATH = Paths.get("./clocks.snapshot");
 
     /**
-     * Starts the bot with the given arguments (from command line or bot.properties).
-     *
-     * @param args Given arguments from command line.
+     * Variable that holds the port the {@link ReportServer} listens on; initialized by the bot.properties file. Has a
+     * default value of 0, which keeps the server off and writes the details to "./log.txt" instead.
      */
-    public static void main(String[] args) {
-        String token = "";
-        try {
-            if (args.length >= 1) {
-                token = args[0];
+    private static int HTTP_PORT = 0;
+
+    /**
+     * Variable that holds the address the {@link ReportServer} listens on; initialized by the bot.properties file. Has
+     * a default value of "127.0.0.1", so only a proxy on the same machine can reach the server; "" listens on every
+     * address of the machine.
+     */
+    private static String HTTP_BIND = "127.0.0.1";
+
+    /**
+     * Variable that contains the ids of the {@link User}s that are sent each channel's times once its pay period
+     * closes; populated by the bot.properties file. Has no default values, so the times are only precomputed.
+     */
+    private static List<String> REPORT_ADMINS = new ArrayList<>();
+
+    /**
+     * How many minutes after a pay period closes (midnight after its last day) its times are finalized.
+     */
+    private static final long FINALIZE_DELAY = 30;
+
+    /**
+     * {@link ScheduledExecutorService} shared by every shard that finalizes the times of closed pay periods; see
+     * {@link #finalizeClosedPeriod(JDA)}.
+     */
+    private static final ScheduledExecutorService FINALIZE_SCHEDULER = Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+                Thread thread = new Thread(runnable, "TimeTracker-Finalizer");
+                thread.setDaemon(true);
+                return thread;
             }
-            BufferedReader br = new BufferedReader(new FileReader(new File("./bot.properties")));
+    );
 
-            String properties = br.readLine();
-            if (properties != null && token.equalsIgnoreCase(""))
-                token = properties;
+    /**
+     * The {@link ReportServer} that serves the details behind {@link #LOG_URL}, or null if {@link #HTTP_PORT} is 0.
+     */
+    private static ReportServer REPORT_SERVER = null;
 
-            properties = br.readLine();
-            if(properties != null)
-                LOG_URL = properties;
+    /**
+     * Discord only allows one shard to log in every 5 seconds.
+     */
+    private static final long SHARD_LOGIN_DELAY = 5000;
 
-            properties = br.readLine();
-            if(properties != null)
-                BOT_NAME = properties;
+    /**
+     * The most {@link User}s each shard keeps an opened {@link PrivateChannel} of.
+     */
+    private static final int PRIVATE_CHANNEL_CAPACITY = 1000;
+
+    /**
+     * How many minutes an opened {@link PrivateChannel} is kept before it is opened again.
+     */
+    private static final long PRIVATE_CHANNEL_EXPIRY = 30;
+
+    /**
+     * The most message events each shard's {@link IngestQueue} holds before the shard's event thread waits for room.
+     */
+    private static final int INGEST_CAPACITY = 1024;
 
-            properties = br.readLine();
-            if(properties != null)
-                TIMEZONE = properties;
+    /**
+     * The most message events handled (and journaled with one fsync) at once.
+     */
+    private static final int INGEST_BATCH_SIZE = 64;
 
-            properties = br.readLine();
-            if(properties != null)
-                TIMESTAMP = properties;
+    /**
+     * {@link ExecutorService} shared by every shard that calculates the {@link MemberReport}s of the '/times MM/dd/yy'
+     * command in parallel.
+     */
+    private static final ExecutorService REPORT_EXECUTOR = Executors.newFixedThreadPool(
+            Runtime.getRuntime().availableProcessors(),
+            runnable -> {
+                Thread thread = new Thread(runnable, "TimeTracker-Reports");
+                thread.setDaemon(true);
+                return thread;
+            }
+    );
 
-            properties = br.readLine();
-            if(properties != null) {
-                String[] inWords = properties.split(", ");
-                CLOCK_IN_WORDS.clear(); // Clear defaults.
-                Collections.addAll(CLOCK_IN_WORDS, inWords);
+    /**
+     * {@link ExecutorService} shared by every shard that starts the '/times MM/dd/yy' calculations, which page through
+     * a channel's history (see {@link #getClockIndex(TextChannel)}) and read {@link ClockSegment}s. Kept apart from
+     * {@link #REPORT_EXECUTOR} so channels waiting on Discord do not hold the threads the reports are calculated on.
+     */
+    private static final ExecutorService HISTORY_EXECUTOR = Executors.newCachedThreadPool(
+            runnable -> {
+                Thread thread = new Thread(runnable, "TimeTracker-History");
+                thread.setDaemon(true);
+                return thread;
             }
+    );
+
+    /**
+     * The {@link ClockStore} shared between every shard's {@link TimeTracker}. Used in
+     * {@link #getClocks(User, TextChannel, User, String)}.
+     */
+    private final ClockStore clockStore;
+
+    /**
+     * The {@link CommandRouter} that sends the guild commands to their handlers.
+     */
+    private final CommandRouter commands;
+
+    /**
+     * The {@link PrivateChannelCache} of the shard's opened {@link PrivateChannel}s, so repeated private messages to
+     * the same {@link User} do not open their channel again.
+     */
+    private final PrivateChannelCache privateChannels = new PrivateChannelCache(
+            PRIVATE_CHANNEL_CAPACITY, PRIVATE_CHANNEL_EXPIRY, TimeUnit.MINUTES
+    );
+
+    /**
+     * The {@link IngestQueue} that takes the shard's new, edited, and deleted clocks off the event thread. See
+     * {@link #ingestBatch(List)}.
+     */
+    private final IngestQueue ingest = new IngestQueue(
+            "TimeTracker-Ingest", INGEST_CAPACITY, INGEST_BATCH_SIZE, this::ingestBatch
+    );
 
-            properties = br.readLine();
-            if(properties != null) {
-                String[] outWords = properties.split(", ");
-                CLOCK_OUT_WORDS.clear(); // Clear defaults.
-                Collections.addAll(CLOCK_OUT_WORDS, outWords);
+    /**
+     * Creates a {@link TimeTracker} listener for one shard.
+     *
+     * @param clockStore The {@link ClockStore} shared between every shard.
+     */
+    TimeTracker(ClockStore clockStore) {
+        this.clockStore = clockStore;
+        this.commands = new CommandRouter()
+                .register("/times", this::timesCommand)
+                .register("/clocks", this::clocksCommand)
+                .register("/anomalies", this::anomaliesCommand);
+    }
+
+    /**
+     * Starts the bot with the given arguments (from command line or bot.properties).
+     *
+     * @param args Given arguments from command line.
+     */
+    public static void main(String[] args) {
+        String token = "";
+        try {
+            if (args.length >= 1) {
+                token = args[0];
             }
+            token = loadProperties(token);
 
-            properties = br.readLine();
-            if(properties != null)
-                RETRIEVABLE_MESSAGE_AMOUNT = Integer.parseInt(properties);
+            // Restore the indexes before any shard connects, so no event is handled by a cold index.
+            ClockStore clockStore = new ClockStore();
+            System.out.println("Restored " + clockStore.restore(SNAPSHOT_PATH) + " channels from the snapshot.");
+            System.out.println("Found problems of " + findRestoredAnomalies(clockStore) + " members in them.");
+            startSnapshots(clockStore);
 
-            br.close();
+            if(HTTP_PORT > 0) {
+                REPORT_SERVER = new ReportServer(HTTP_BIND, HTTP_PORT);
+                REPORT_SERVER.start();
+            }
 
-            new JDABuilder(AccountType.BOT)
-                    .setBulkDeleteSplittingEnabled(false)
-                    .setToken(token)
-                    .addListener(new TimeTracker())
-                    .buildBlocking();
+            startShards(token, clockStore);
         }
         catch (IllegalArgumentException e) {
             System.out.println("The config was not populated. Please make sure all arguments were given.");
@@ -183,6 +299,235 @@ public class TimeTracker extends ListenerAdapter {
         }
     } // End of main()
 
+    /**
+     * Reads the bot.properties file, one property per line, into the static variables. Properties that are missing
+     * keep their default values. The lines are as follows:<br>
+     * 1. The bot token.<br>
+     * 2. {@link #LOG_URL}<br>
+     * 3. {@link #BOT_NAME}<br>
+     * 4. {@link #TIMEZONE}<br>
+     * 5. {@link #TIMESTAMP}<br>
+     * 6. {@link #CLOCK_IN_WORDS}, separated by ", "<br>
+     * 7. {@link #CLOCK_OUT_WORDS}, separated by ", "<br>
+     * 8. {@link #RETRIEVABLE_MESSAGE_AMOUNT}<br>
+     * 9. {@link #SHARD_COUNT}<br>
+     * 10. {@link #PAY_SCHEDULE} (see {@link PaySchedule#parse(String)})<br>
+     * 11. {@link #SNAPSHOT_INTERVAL} in minutes<br>
+     * 12. {@link #HTTP_PORT} (0 keeps the {@link ReportServer} off)<br>
+     * 13. {@link #REPORT_ADMINS}, separated by ", " (may be empty)<br>
+     * 14. {@link #PAY_ANCHOR} as 'MM/dd/yy' (may be empty)<br>
+     * 15. {@link #HTTP_BIND} (empty for every address)
+     *
+     * @param token The bot token given from the command line, or "" to use the one from the file.
+     * @return The bot token to use.
+     * @throws IOException If the bot.properties file could not be found or read.
+     */
+    static String loadProperties(String token) throws IOException {
+        BufferedReader br = new BufferedReader(new FileReader(new File("./bot.properties")));
+
+        String properties = br.readLine();
+        if (properties != null && token.equalsIgnoreCase(""))
+            token = properties;
+
+        properties = br.readLine();
+        if(properties != null)
+            LOG_URL = properties;
+
+        properties = br.readLine();
+        if(properties != null)
+            BOT_NAME = properties;
+
+        properties = br.readLine();
+        if(properties != null)
+            TIMEZONE = properties;
+
+        properties = br.readLine();
+        if(properties != null)
+            TIMESTAMP = properties;
+
+        properties = br.readLine();
+        if(properties != null) {
+            String[] inWords = properties.split(", ");
+            CLOCK_IN_WORDS.clear(); // Clear defaults.
+            Collections.addAll(CLOCK_IN_WORDS, inWords);
+        }
+
+        properties = br.readLine();
+        if(properties != null) {
+            String[] outWords = properties.split(", ");
+            CLOCK_OUT_WORDS.clear(); // Clear defaults.
+            Collections.addAll(CLOCK_OUT_WORDS, outWords);
+        }
+
+        properties = br.readLine();
+        if(properties != null)
+            RETRIEVABLE_MESSAGE_AMOUNT = Integer.parseInt(properties);
+
+        properties = br.readLine();
+        if(properties != null)
+            SHARD_COUNT = Integer.parseInt(properties);
+
+        properties = br.readLine();
+        if(properties != null)
+            PAY_SCHEDULE = PaySchedule.parse(properties);
+
+        properties = br.readLine();
+        if(properties != null)
+            SNAPSHOT_INTERVAL = Integer.parseInt(properties);
+
+        properties = br.readLine();
+        if(properties != null)
+            HTTP_PORT = Integer.parseInt(properties);
+
+        properties = br.readLine();
+        if(properties != null && !properties.trim().isEmpty())
+            Collections.addAll(REPORT_ADMINS, properties.split(", "));
+
+        properties = br.readLine();
+        if(properties != null && !properties.trim().isEmpty())
+            PAY_ANCHOR = LocalDate.parse(properties.trim(), DateTimeFormatter.ofPattern("MM/dd/yy"));
+
+        properties = br.readLine();
+        if(properties != null)
+            HTTP_BIND = properties.trim();
+
+        br.close();
+
+        return token;
+    } // End of loadProperties()
+
+    /**
+     * @return The {@link ZoneId} of {@link #TIMEZONE}.
+     */
+    static ZoneId getTimeZone() {
+        return TimeZone.getTimeZone(TIMEZONE).toZoneId();
+    } // End of getTimeZone()
+
+    /**
+     * Starts {@link #SHARD_COUNT} shards, each with their own {@link TimeTracker} listener sharing one
+     * {@link ClockStore}. Shards connect in the background; only their logins are spaced out by
+     * {@link #SHARD_LOGIN_DELAY}.
+     *
+     * @param token The bot's token.
+     * @param clockStore The {@link ClockStore} shared between every shard.
+     * @return The started shards.
+     * @throws LoginException If the token is incorrect.
+     * @throws InterruptedException If the thread is interrupted while waiting to log in the next shard.
+     * @throws RateLimitedException If the login is rate limited.
+     */
+    private static List<JDA> startShards(String token, ClockStore clockStore)
+            throws LoginException, InterruptedException, RateLimitedException {
+        List<JDA> shards = new ArrayList<>();
+
+        if(SHARD_COUNT <= 1) {
+            shards.add(createBuilder(token, clockStore).buildBlocking());
+            return shards;
+        }
+
+        for(int shardId = 0; shardId < SHARD_COUNT; shardId++) {
+            if(shardId > 0)
+                Thread.sleep(SHARD_LOGIN_DELAY);
+            shards.add(createBuilder(token, clockStore).useSharding(shardId, SHARD_COUNT).buildAsync());
+        }
+        return shards;
+    } // End of startShards()
+
+    /**
+     * Finds the problems in the {@link ClockIndex}es restored from the snapshot, since the {@link AnomalyIndex}es are
+     * not part of it. Every member's clocks are checked in each pay period the restored history reaches back to the
+     * start of, the same way {@link #checkAnomalies(TextChannel, ClockIndex, long, Collection)} checks a new clock.
+     * Nothing is checked if fixed length pay periods have no {@link #PAY_ANCHOR}.
+     *
+     * @param clockStore The {@link ClockStore} with the restored {@link ClockIndex}es.
+     * @return The amount of members with problems.
+     */
+    private static int findRestoredAnomalies(ClockStore clockStore) {
+        if(!PAY_SCHEDULE.isAnchored(PAY_ANCHOR))
+            return 0;
+
+        ZoneId timeZone = getTimeZone();
+        LocalDate today = LocalDate.now(timeZone);
+        int members = 0;
+        for(String channelId : clockStore.getChannelIds()) {
+            ClockIndex index = clockStore.findIndex(channelId);
+            AnomalyIndex anomalies = clockStore.getAnomalies(channelId);
+            for(String userId : index.getUserIds()) {
+                // Every clock was sent after Discord's epoch, so this gets all of the member's clocks.
+                int[] rows = index.getClocks(userId, LocalDate.of(2015, 1, 1), today.plusDays(1), timeZone);
+                int first = 0;
+                while(first < rows.length) {
+                    LocalDate date = Instant.ofEpochMilli(index.getEpochMilli(rows[first])).atZone(timeZone)
+                            .toLocalDate();
+                    PayPeriod period = PAY_SCHEDULE.getPeriod(PAY_ANCHOR, date, timeZone);
+                    long end = period.getEndDate().plusDays(1).atStartOfDay(timeZone).toInstant().toEpochMilli();
+                    int last = first;
+                    while(last < rows.length && index.getEpochMilli(rows[last]) < end)
+                        last++;
+                    if(index.hasHistorySince(period.getStartDate(), timeZone))
+                        anomalies.addReport(index, MemberReport.calculate(
+                                index, userId, userId, Arrays.copyOfRange(rows, first, last), period
+                        ));
+                    first = last;
+                }
+            }
+            members += anomalies.getUserIds().size();
+        }
+        return members;
+    } // End of findRestoredAnomalies()
+
+    /**
+     * Writes a snapshot of the {@link ClockStore} every {@link #SNAPSHOT_INTERVAL} minutes and when the bot shuts
+     * down, so a restarted bot only has to fetch the messages sent since the last snapshot.
+     *
+     * @param clockStore The {@link ClockStore} to snapshot.
+     */
+    private static void startSnapshots(ClockStore clockStore) {
+        Runnable snapshot = () -> {
+            try {
+                clockStore.writeSnapshot(SNAPSHOT_PATH);
+            } catch (IOException e) {
+                System.out.println("Could not write snapshot " + SNAPSHOT_PATH + "! Cause: " + e.getMessage());
+            }
+        };
+
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "TimeTracker-Snapshots");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(snapshot, SNAPSHOT_INTERVAL, SNAPSHOT_INTERVAL, TimeUnit.MINUTES);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            scheduler.shutdownNow();
+            snapshot.run();
+        }, "TimeTracker-Shutdown"));
+    } // End of startSnapshots()
+
+    /**
+     * Creates a {@link JDABuilder} with a new {@link TimeTracker} listener that uses the passed in {@link ClockStore}.
+     * The load driver (LoadDriver in the test sources) builds the bot against its mock Discord with it too.
+     *
+     * @param token The bot's token.
+     * @param clockStore The {@link ClockStore} shared between every shard.
+     * @return The {@link JDABuilder} for one shard.
+     */
+    static JDABuilder createBuilder(String token, ClockStore clockStore) {
+        return new JDABuilder(AccountType.BOT)
+                .setBulkDeleteSplittingEnabled(false)
+                .setToken(token)
+                .addListener(new TimeTracker(clockStore));
+    } // End of createBuilder()
+
+    /**
+     * Starts finalizing the times of closed pay periods for the shard's channels once the shard is ready.
+     *
+     * @param event Event that holds the ready shard.
+     */
+    @Override
+    public void onReady(ReadyEvent event) {
+        JDA jda = event.getJDA();
+        FINALIZE_SCHEDULER.execute(() -> finalizeClosedPeriod(jda));
+    } // End of onReady()
+
     /**
      * Contains /clear command to delete all private messages received from the bot.
      *
@@ -212,73 +557,316 @@ public class TimeTracker extends ListenerAdapter {
      * Handles the command input via a guild {@link TextChannel} that the bot is a part of. Commands:<br>
      * /times MM/dd/yy (Gets clock ins/outs and the total hours for each member. Admin use only.)<br>
      * /clocks @{@link User} MM/dd/yy (Gets the clock ins/outs for the specified {@link User}. Open use.)<br>
+     * /anomalies (Gets the problems found with every member's clocks. Admin use only.)<br>
+     * /anomalies @{@link User} (Gets the problems found with the specified {@link User}'s clocks. Open use.)<br>
+     * Commands are sent to their handlers by {@link #commands}; every other message is queued on {@link #ingest}.
      *
      * @param event Event that holds the {@link User}, {@link TextChannel}, and command info.
      */
     @Override
     public void onGuildMessageReceived(GuildMessageReceivedEvent event) {
+        String content = event.getMessage().getContent();
+        boolean isCommand = !content.isEmpty() && content.charAt(0) == '/';
+        if(!isCommand)
+            ingest.put(event);
+
+        if(!isCommand || event.getAuthor().isBot())
+            return;
+
+        commands.dispatch(event);
+    } // End of onGuildMessageReceived()
+
+    /**
+     * Handles the '/times MM/dd/yy' command. Admin use only.
+     *
+     * @param event Event that holds the {@link User}, {@link TextChannel}, and command info.
+     * @param command The tokenized command.
+     */
+    private void timesCommand(GuildMessageReceivedEvent event, CommandRouter.Command command) {
+        event.getMessage().deleteMessage().queue();
+        if(!command.isDate(1)) {
+            sendPrivate(event.getAuthor(), pm -> pm.sendMessage("Usage: /times mm/dd/yy").queue());
+            return;
+        }
+
+        if(event.getGuild().getMember(event.getAuthor()).hasPermission(Permission.ADMINISTRATOR))
+            getTimes(event.getAuthor(), event.getChannel(), command.getToken(1));
+        else
+            sendNoPermission(event.getAuthor());
+    } // End of timesCommand()
+
+    /**
+     * Handles the '/clocks @{@link User} MM/dd/yy' command. Open use.
+     *
+     * @param event Event that holds the {@link User}, {@link TextChannel}, and command info.
+     * @param command The tokenized command.
+     */
+    private void clocksCommand(GuildMessageReceivedEvent event, CommandRouter.Command command) {
+        event.getMessage().deleteMessage().queue();
+        if(command.getTokenCount() < 3 || !command.isDate(command.getTokenCount() - 1)
+                || event.getMessage().getMentionedUsers().isEmpty()) {
+            sendPrivate(event.getAuthor(), pm -> pm.sendMessage("Usage: /clocks @Name mm/dd/yy").queue());
+            return;
+        }
+
+        getClocks(
+                event.getAuthor(),
+                event.getChannel(),
+                event.getMessage().getMentionedUsers().get(0), command.getLastToken()
+        );
+    } // End of clocksCommand()
+
+    /**
+     * Handles the '/anomalies [@{@link User}]' command. Open use for one {@link User}; admin use only for every
+     * member.
+     *
+     * @param event Event that holds the {@link User}, {@link TextChannel}, and command info.
+     * @param command The tokenized command.
+     */
+    private void anomaliesCommand(GuildMessageReceivedEvent event, CommandRouter.Command command) {
+        event.getMessage().deleteMessage().queue();
+        if(!event.getMessage().getMentionedUsers().isEmpty())
+            getAnomalies(event.getAuthor(), event.getChannel(), event.getMessage().getMentionedUsers().get(0));
+        else if(event.getGuild().getMember(event.getAuthor()).hasPermission(Permission.ADMINISTRATOR))
+            getAnomalies(event.getAuthor(), event.getChannel(), null);
+        else
+            sendNoPermission(event.getAuthor());
+    } // End of anomaliesCommand()
+
+    /**
+     * Tells the {@link User} they do not have permission to use a command.
+     *
+     * @param user The {@link User} that entered the command.
+     */
+    private void sendNoPermission(User user) {
+        sendPrivate(user, pm -> pm.sendMessage("You don't have permission to use that command!").queue());
+    } // End of sendNoPermission()
+
+    /**
+     * Sends the {@link User} private messages through their cached {@link PrivateChannel}. The channel is only opened
+     * if it is not in {@link #privateChannels}, and the messages are sent once it is open without blocking.
+     *
+     * @param user The {@link User} to send the messages to.
+     * @param messages Sends the messages to the {@link PrivateChannel}.
+     */
+    private void sendPrivate(User user, Consumer<PrivateChannel> messages) {
+        privateChannels.get(user).thenAccept(messages).exceptionally(e -> {
+            System.out.println("Bot may have been blocked! Cause: " + e.getMessage());
+            return null;
+        });
+    } // End of sendPrivate()
+
+    /**
+     * Queues an edited clock in/out on {@link #ingest}, behind the messages received before it.
+     *
+     * @param event Event that holds the edited {@link Message}.
+     */
+    @Override
+    public void onGuildMessageUpdate(GuildMessageUpdateEvent event) {
+        ingest.put(event);
+    } // End of onGuildMessageUpdate()
+
+    /**
+     * Queues a deleted clock in/out on {@link #ingest}, behind the messages received before it.
+     *
+     * @param event Event that holds the deleted {@link Message}'s id.
+     */
+    @Override
+    public void onGuildMessageDelete(GuildMessageDeleteEvent event) {
+        ingest.put(event);
+    } // End of onGuildMessageDelete()
+
+    /**
+     * Handles a batch of message events from {@link #ingest}, in the order they were received. Every new message is
+     * checked by {@link #checkForCorrectClock(GuildMessageReceivedEvent)}, and the changes to the {@link ClockIndex}es
+     * are written to the {@link ClockJournal} together, with one fsync for the whole batch. A message that fails is
+     * skipped on its own; the rest of the batch is still handled and journaled.
+     *
+     * @param batch The {@link GuildMessageReceivedEvent}s, {@link GuildMessageUpdateEvent}s, and
+     *              {@link GuildMessageDeleteEvent}s to handle.
+     */
+    private void ingestBatch(List<Event> batch) {
+        List<ClockJournal.Entry> entries = new ArrayList<>();
+        for(Event event : batch) {
+            // One message that can not be handled must not cost the rest of the batch, or the entries collected so far.
+            try {
+                if(event instanceof GuildMessageReceivedEvent)
+                    addClock((GuildMessageReceivedEvent) event, entries);
+                else if(event instanceof GuildMessageUpdateEvent)
+                    updateClock((GuildMessageUpdateEvent) event, entries);
+                else if(event instanceof GuildMessageDeleteEvent)
+                    deleteClock((GuildMessageDeleteEvent) event, entries);
+            } catch (RuntimeException e) {
+                System.out.println("Could not handle a message in the ingest queue! Cause: " + e.getMessage());
+            }
+        }
+
+        try {
+            clockStore.getJournal().append(entries);
+        } catch (IOException e) {
+            System.out.println("Could not write the journal! Cause: " + e.getMessage());
+        }
+    } // End of ingestBatch()
+
+    /**
+     * Checks a new message and adds it to its {@link TextChannel}'s {@link ClockIndex} if the index is loaded. A
+     * message that is already in the index, because the history loaded while it was queued contains it, is not added
+     * again. The members it mentions are then checked for anomalies in its pay period.
+     *
+     * @param event Event that holds the new {@link Message}.
+     * @param entries The {@link ClockJournal.Entry}s of the batch.
+     */
+    private void addClock(GuildMessageReceivedEvent event, List<ClockJournal.Entry> entries) {
         checkForCorrectClock(event);
 
-        if(event.getAuthor().isBot() || !event.getMessage().getContent().startsWith("/"))
+        Message message = event.getMessage();
+        ClockIndex index = clockStore.findIndex(event.getChannel().getId());
+        if(index == null || message.getMentionedUsers().isEmpty())
             return;
 
-        // Split the message into command and parameters.
-        String commandline = event.getMessage().getContent();
-        String[] parts = commandline.split(" ");
-        String command = parts[0];
-
-        // Handles commands.
-        switch (command.toLowerCase()) {
-            case "/times":
-                if(parts.length < 2 || !parts[1].contains("/")){
-                    event.getAuthor().getPrivateChannel().sendMessage("Usage: /times mm/dd/yy").queue();
-                    event.getMessage().deleteMessage().queue();
-                    return;
-                }
-                else if(parts[1].contains("/")){
-                    String[] numbers = parts[1].split("/");
-                    for(String s : numbers) {
-                        if (numbers.length < 3 || !s.matches("[0-9]+")) {
-                            event.getAuthor().getPrivateChannel().sendMessage("Usage: /times mm/dd/yy").queue();
-                            event.getMessage().deleteMessage().queue();
-                            return;
-                        }
-                    }
-                }
-                event.getMessage().deleteMessage().queue();
-                if(event.getGuild().getMember(event.getAuthor()).hasPermission(Permission.ADMINISTRATOR))
-                    getTimes(event.getAuthor(), event.getChannel(), parts[1]);
-                else
-                    try {
-                        PrivateChannel pm = event.getAuthor().openPrivateChannel().complete();
-                        pm.sendMessage("You don't have permission to use that command!").queue();
-                    } catch (Exception e) {System.out.println("Bot may have been blocked! Cause: " + e.getMessage());}
-                break;
-            case "/clocks":
-                if(parts.length < 3){
-                    event.getAuthor().getPrivateChannel().sendMessage("Usage: /clocks @Name mm/dd/yy").queue();
-                    event.getMessage().deleteMessage().queue();
-                    return;
-                }
-                else if(parts[1].contains("/")){
-                    String[] numbers = parts[parts.length - 1].split("/");
-                    for(String s : numbers) {
-                        System.out.println(s);
-                        if (numbers.length < 3 || !s.matches("[0-9]+")) {
-                            event.getAuthor().getPrivateChannel().sendMessage("Usage: /clocks @Name mm/dd/yy").queue();
-                            event.getMessage().deleteMessage().queue();
-                            return;
-                        }
+        ClockJournal.Entry entry = toJournalEntry(event.getChannel().getId(), message);
+        synchronized (index) {
+            if(!index.isLoaded() || index.contains(entry.getId(), entry.getMentionedUserIds().get(0)))
+                return;
+            index.add(message);
+        }
+        entries.add(entry);
+        if(checkAnomalies(event.getChannel(), index, entry.getId(), entry.getMentionedUserIds()))
+            publishAnomalies(event.getChannel());
+    } // End of addClock()
+
+    /**
+     * Keeps the {@link TextChannel}'s {@link ClockIndex} and {@link AnomalyIndex} up to date when a clock in/out is
+     * edited, and drops the {@link ClockSegment} and finalized {@link TimesReport} of its pay period (see
+     * {@link #removeCompacted(String, ClockIndex, long)}). The members mentioned before and after the edit are checked
+     * for anomalies in its pay period again.
+     *
+     * @param event Event that holds the edited {@link Message}.
+     * @param entries The {@link ClockJournal.Entry}s of the batch.
+     */
+    private void updateClock(GuildMessageUpdateEvent event, List<ClockJournal.Entry> entries) {
+        String channelId = event.getChannel().getId();
+        ClockIndex index = clockStore.findIndex(channelId);
+        Set<String> userIds = new HashSet<>();
+        if(index != null) {
+            synchronized (index) {
+                // A restored index only holds messages up to its newest one; newer ones are added when it catches up.
+                String messageId = event.getMessage().getId();
+                if(index.isLoaded() || index.isRestored()) {
+                    userIds.addAll(index.getMentionedUserIds(Long.parseLong(messageId)));
+                    boolean changed = index.remove(messageId);
+                    entries.add(ClockJournal.Entry.remove(Long.parseLong(messageId), channelId));
+                    if((index.isLoaded() || Long.parseLong(messageId) <= index.getNewestId())
+                            && !event.getMessage().getMentionedUsers().isEmpty()) {
+                        index.add(event.getMessage());
+                        ClockJournal.Entry entry = toJournalEntry(channelId, event.getMessage());
+                        entries.add(entry);
+                        userIds.addAll(entry.getMentionedUserIds());
+                        changed = true;
                     }
+                    if(changed)
+                        removeCompacted(channelId, index, Long.parseLong(messageId));
                 }
-                event.getMessage().deleteMessage().queue();
-                getClocks(
-                        event.getAuthor(),
-                        event.getChannel(),
-                        event.getMessage().getMentionedUsers().get(0), parts[parts.length - 1]
-                );
+            }
         }
-    } // End of onGuildMessageReceived()
+        boolean removed = clockStore.getAnomalies(channelId).remove(event.getMessage().getId());
+        boolean checked = !userIds.isEmpty()
+                && checkAnomalies(event.getChannel(), index, Long.parseLong(event.getMessage().getId()), userIds);
+        if(removed || checked)
+            publishAnomalies(event.getChannel());
+    } // End of updateClock()
+
+    /**
+     * Keeps the {@link TextChannel}'s {@link ClockIndex} and {@link AnomalyIndex} up to date when a clock in/out is
+     * deleted, and drops the {@link ClockSegment} and finalized {@link TimesReport} of its pay period (see
+     * {@link #removeCompacted(String, ClockIndex, long)}). The members it mentioned are checked for anomalies in its
+     * pay period again, since their other clocks may have lost their pair.
+     *
+     * @param event Event that holds the deleted {@link Message}'s id.
+     * @param entries The {@link ClockJournal.Entry}s of the batch.
+     */
+    private void deleteClock(GuildMessageDeleteEvent event, List<ClockJournal.Entry> entries) {
+        String channelId = event.getChannel().getId();
+        long messageId = Long.parseLong(event.getMessageId());
+        ClockIndex index = clockStore.findIndex(channelId);
+        List<String> userIds = new ArrayList<>();
+        if(index != null) {
+            userIds = index.getMentionedUserIds(messageId);
+            if(index.remove(event.getMessageId()))
+                removeCompacted(channelId, index, messageId);
+            entries.add(ClockJournal.Entry.remove(messageId, channelId));
+        }
+        boolean removed = clockStore.getAnomalies(channelId).remove(event.getMessageId());
+        boolean checked = !userIds.isEmpty() && checkAnomalies(event.getChannel(), index, messageId, userIds);
+        if(removed || checked)
+            publishAnomalies(event.getChannel());
+    } // End of deleteClock()
+
+    /**
+     * Checks the clocks of the members in the pay period of a clock that was added, edited or deleted, and records
+     * their problems in the {@link TextChannel}'s {@link AnomalyIndex}. Each member's {@link MemberReport} is
+     * calculated again, so a clock's missing pair, bad format and missing meridiem are found the same way the
+     * '/times MM/dd/yy' command finds them. Nothing is checked if the index does not reach back to the start of the
+     * pay period, since every clock missing from it would be reported as a problem, or if fixed length pay periods
+     * have no {@link #PAY_ANCHOR}, since each clock would then be checked in a pay period starting on its own day.
+     *
+     * @param channel The {@link TextChannel} of the clock.
+     * @param index The {@link ClockIndex} of the {@link TextChannel}.
+     * @param messageId The id of the clock's {@link Message}.
+     * @param userIds The ids of the members to check.
+     * @return Whether the channel's anomalies changed.
+     */
+    private boolean checkAnomalies(TextChannel channel, ClockIndex index, long messageId, Collection<String> userIds) {
+        if(!PAY_SCHEDULE.isAnchored(PAY_ANCHOR))
+            return false;
+
+        LocalDate date = Instant.ofEpochMilli(ClockIndex.toEpochMilli(messageId)).atZone(timeZone).toLocalDate();
+        PayPeriod period = PAY_SCHEDULE.getPeriod(PAY_ANCHOR, date, timeZone);
+        if(!index.hasHistorySince(period.getStartDate(), timeZone))
+            return false;
+
+        AnomalyIndex anomalies = clockStore.getAnomalies(channel.getId());
+        boolean changed = false;
+        for(String userId : userIds) {
+            int[] rows = index.getClocks(userId, period.getStartDate(), period.getEndDate(), timeZone);
+            // The report is only kept for its anomalies, so the member's name is not looked up.
+            if(anomalies.addReport(index, MemberReport.calculate(index, userId, userId, rows, period)))
+                changed = true;
+        }
+        return changed;
+    } // End of checkAnomalies()
+
+    /**
+     * Deletes the {@link ClockSegment} and finalized {@link TimesReport} of the pay period an edited or deleted clock
+     * was sent in, so the next report of that pay period is calculated from the {@link ClockIndex} again. Segments
+     * the index can not rebuild are kept.
+     *
+     * @param channelId The id of the {@link TextChannel} of the clock.
+     * @param index The {@link ClockIndex} of the {@link TextChannel}.
+     * @param messageId The id of the clock's {@link Message}.
+     */
+    private void removeCompacted(String channelId, ClockIndex index, long messageId) {
+        LocalDate date = Instant.ofEpochMilli(ClockIndex.toEpochMilli(messageId)).atZone(timeZone).toLocalDate();
+        clockStore.removeFinalReports(channelId, date);
+        clockStore.getSegments().removeContaining(
+                channelId, date, startDate -> index.hasHistorySince(startDate, timeZone)
+        );
+    } // End of removeCompacted()
+
+    /**
+     * @param channelId The id of the {@link TextChannel} the {@link Message} was sent in.
+     * @param message The {@link Message} that was added to the channel's {@link ClockIndex}.
+     * @return The {@link ClockJournal.Entry} that adds the {@link Message} again when it is replayed.
+     */
+    private static ClockJournal.Entry toJournalEntry(String channelId, Message message) {
+        List<String> mentionedUserIds = new ArrayList<>();
+        for(User user : message.getMentionedUsers())
+            mentionedUserIds.add(user.getId());
+        return ClockJournal.Entry.add(
+                Long.parseLong(message.getId()), channelId, message.getAuthor().getId(), message.getContent(),
+                mentionedUserIds
+        );
+    } // End of toJournalEntry()
 
     /**
      * Notifies the user typing a clock in/out if they have typed the clock wrong.
@@ -294,18 +882,14 @@ public class TimeTracker extends ListenerAdapter {
                 return;
             case 1:
                 if(content.contains(":")) {
-                    String firsTimeNum = content.substring(content.indexOf(":") - 2, content.indexOf(":") - 1);
-                    String beforeMeridian = "";
-                    if(content.toLowerCase().contains("am"))
-                        beforeMeridian = content.substring(
-                                content.toLowerCase().indexOf("am") - 1,
-                                content.toLowerCase().indexOf("am")
-                        );
-                    else if(content.toLowerCase().contains("pm"))
-                        beforeMeridian = content.substring(
-                                content.toLowerCase().indexOf("pm") - 1,
-                                content.toLowerCase().indexOf("pm")
-                        );
+                    // A ':' or meridiem at the start of the message (such as an emote) has no time before it.
+                    int colon = content.indexOf(":");
+                    String firsTimeNum = colon >= 2 ? content.substring(colon - 2, colon - 1) : "";
+                    String lowerContent = content.toLowerCase();
+                    int meridian = lowerContent.indexOf("am");
+                    if(meridian < 0)
+                        meridian = lowerContent.indexOf("pm");
+                    String beforeMeridian = meridian >= 1 ? lowerContent.substring(meridian - 1, meridian) : "";
 
                     if(!firsTimeNum.matches("[ 0-9]+"))
                         sendMessage = true;
@@ -314,58 +898,254 @@ public class TimeTracker extends ListenerAdapter {
                 }
         }
         if(sendMessage){
-            PrivateChannel pm = event.getAuthor().openPrivateChannel().complete();
-            pm.sendMessage(
+            sendPrivate(event.getAuthor(), pm -> pm.sendMessage(
                     "That clock in/out may be incorrect! Please check that it is in the format:\n"
                     + "@Name is in/out at XX:XX AM/PM"
-            ).queue();
+            ).queue());
         }
     } // End of checkForCorrectClock()
 
     /**
-     * Method that is called when the command '/times MM/dd/yy' is used. Gets the {@link TextChannel}'s members and
-     * their messages from the channel the command was entered from and adds them to {@link #tracker}.
-     * Also produces the twoWeekStartDate and twoWeekEndDate from the 'MM/dd/yy' parameter.
-     * Finally, it calls {@link #sendMemberInfo(User, TextChannel, Member, List)} to send the user
-     * of the command the requested info.
+     * Method that is called when the command '/times MM/dd/yy' is used. The {@link PayPeriod} is picked by
+     * {@link #PAY_SCHEDULE} from the 'MM/dd/yy' parameter and its {@link TimesReport} is calculated by
+     * {@link #calculateTimes(TextChannel, PayPeriod)}; if the same command is already being calculated for the
+     * channel (for example when several admins enter it at once) this command joins it instead of starting another.
+     * Each {@link MemberReport} is sent by {@link #sendTimes(PrivateChannel, TextChannel, TimesReport)} as soon as it
+     * and every report before it are ready, so the command user gets them in order without waiting for all of them.
+     * Closed pay periods that were finalized by {@link #finalizeClosedPeriod(JDA)} are sent straight away.
      *
      * @param cmdUser The {@link User} that entered the command.
      * @param channel The {@link TextChannel} from which the messages are being pulled from.
      * @param dateAsString The 'MM/dd/yy' parameter given from the '/times MM/dd/yy' command.
      */
     private void getTimes(User cmdUser, TextChannel channel, String dateAsString) {
-        invalidClocks = new HashMap<>();
-        singleClocks = new HashMap<>();
-
-        List<Message> channelMessages = getChannelMessageHistory(channel);
+        // Get dates to check clock in and out messages.
+        PayPeriod period = PAY_SCHEDULE.getPeriod(PAY_ANCHOR, parseDate(dateAsString), timeZone);
+        CompletableFuture<TimesReport> timesReport = clockStore.getTimesReport(
+                getTimesKey(channel.getId(), period),
+                () -> calculateTimes(channel, period),
+                HISTORY_EXECUTOR
+        );
 
-        for(Member m : channel.getMembers())
-            if(!m.getUser().isBot())
-                addMemberInfoToTracker(m, channelMessages);
+        // Send messages and times to cmdUser.
+        timesReport.thenAcceptBoth(privateChannels.get(cmdUser), (times, pm) -> sendTimes(pm, channel, times))
+                .exceptionally(e -> {
+                    System.out.println("Failed to send the times! Cause: " + e.getMessage());
+                    return null;
+                });
+    } // End of getTimes()
 
-        // Get dates to check clock in and out messages.
-        twoWeekStartDate = setStartDate(dateAsString);
-        twoWeekEndDate = setEndDate(twoWeekStartDate);
+    /**
+     * Sends every {@link MemberReport} of the {@link TimesReport} with
+     * {@link #sendMemberInfo(PrivateChannel, TextChannel, ClockIndex, MemberReport, PayPeriod)} as soon as it and
+     * every report before it are ready.
+     *
+     * @param pm The {@link PrivateChannel} to send the times to.
+     * @param channel The {@link TextChannel} the clocks are from.
+     * @param times The {@link TimesReport} being calculated.
+     */
+    private void sendTimes(PrivateChannel pm, TextChannel channel, TimesReport times) {
+        CompletableFuture<Void> delivery = CompletableFuture.completedFuture(null);
+        for(CompletableFuture<MemberReport> report : times.getReports()) {
+            delivery = delivery.thenCombine(report, (previous, memberReport) -> memberReport)
+                    .thenAccept(memberReport -> {
+                        sendMemberInfo(pm, channel, times.getIndex(), memberReport, times.getPeriod());
+                        pm.sendMessage("--------------------").queue();
+                    })
+                    .exceptionally(e -> {
+                        System.out.println("Failed to send a member's times! Cause: " + e.getMessage());
+                        return null;
+                    });
+        }
+    } // End of sendTimes()
 
-        // Get messages only from within the two weeks.
-        trimTrackerMessagesFromDates(twoWeekStartDate, twoWeekEndDate);
+    /**
+     * Finalizes the times of the latest closed pay period for every tracked {@link TextChannel} of the shard, then
+     * schedules itself again for {@link #FINALIZE_DELAY} minutes after the current pay period closes. Each channel's
+     * {@link TimesReport} is calculated (and compacted into a {@link ClockSegment}) one channel at a time, kept by
+     * the {@link ClockStore} so '/times MM/dd/yy' commands for the pay period are answered without calculating
+     * anything, and sent to the {@link #REPORT_ADMINS}. Channels that were already compacted before, for example by
+     * a '/times MM/dd/yy' command or before a restart, are not sent again.
+     * <p>
+     * Fixed length pay periods without a {@link #PAY_ANCHOR} have no boundaries, so nothing is finalized for them;
+     * the finalizer only checks again every day.
+     *
+     * @param jda The shard whose channels are finalized.
+     */
+    private void finalizeClosedPeriod(JDA jda) {
+        LocalDate today = LocalDate.now(timeZone);
+        boolean anchored = PAY_SCHEDULE.isAnchored(PAY_ANCHOR);
+        PayPeriod current = PAY_SCHEDULE.getPeriod(PAY_ANCHOR, today, timeZone);
+        PayPeriod closed = PAY_SCHEDULE.getPeriod(PAY_ANCHOR, current.getStartDate().minusDays(1), timeZone);
 
-        // Wipe the log file for fresh command.
         try {
-            Files.write(Paths.get("./log.txt"), "".getBytes());
-        } catch (Exception e) {e.printStackTrace();}
+            if(!anchored || !closed.isClosed(today))
+                return;
 
-        // Send messages and times to cmdUser.
-        PrivateChannel cmdUserPvt = cmdUser.openPrivateChannel().complete();
-        for(Map.Entry<Member, List<Message>> entry : tracker.entrySet()) {
-            sendMemberInfo(cmdUser, channel, entry.getKey(), entry.getValue());
-            cmdUserPvt.sendMessage("--------------------").queue();
+            for(String channelId : clockStore.getChannelIds()) {
+                TextChannel channel = jda.getTextChannelById(channelId);
+                String key = getTimesKey(channelId, closed);
+                if(channel == null || clockStore.hasFinalReport(key))
+                    continue; // Channel belongs to another shard or is already finalized.
+
+                try {
+                    boolean compacted = clockStore.getSegments().contains(channelId, closed);
+                    TimesReport times = clockStore.getTimesReport(
+                            key, () -> calculateTimes(channel, closed), HISTORY_EXECUTOR
+                    ).join();
+                    times.getDone().join();
+                    clockStore.putFinalReport(channelId, key, times);
+                    if(!compacted)
+                        sendTimesToAdmins(jda, channel, times);
+                } catch (Exception e) {
+                    System.out.println("Failed to finalize the times of " + channel.getName() + "! Cause: "
+                            + e.getMessage());
+                }
+            }
+        } finally {
+            LocalDate nextDate = anchored ? current.getEndDate().plusDays(1) : today.plusDays(1);
+            ZonedDateTime next = nextDate.atStartOfDay(timeZone).plusMinutes(FINALIZE_DELAY);
+            long delay = Math.max(0, Duration.between(ZonedDateTime.now(timeZone), next).toMillis());
+            FINALIZE_SCHEDULER.schedule(() -> finalizeClosedPeriod(jda), delay, TimeUnit.MILLISECONDS);
         }
-    } // End of getTimes()
+    } // End of finalizeClosedPeriod()
+
+    /**
+     * Sends the finalized {@link TimesReport} to every one of the {@link #REPORT_ADMINS}.
+     *
+     * @param jda The shard used to find the admins.
+     * @param channel The {@link TextChannel} the clocks are from.
+     * @param times The {@link TimesReport} with every {@link MemberReport} calculated.
+     */
+    private void sendTimesToAdmins(JDA jda, TextChannel channel, TimesReport times) {
+        for(String adminId : REPORT_ADMINS) {
+            User admin = jda.getUserById(adminId);
+            if(admin == null) {
+                System.out.println("Could not find report admin " + adminId + "!");
+                continue;
+            }
+
+            sendPrivate(admin, pm -> {
+                pm.sendMessage("__**Times of " + channel.getName() + "** (" + times.getPeriod().getStartDate() + " - "
+                        + times.getPeriod().getEndDate() + "):__").queue();
+                sendTimes(pm, channel, times);
+            });
+        }
+    } // End of sendTimesToAdmins()
+
+    /**
+     * @param channelId The id of the {@link TextChannel} of the times.
+     * @param period The {@link PayPeriod} of the times.
+     * @return The key the {@link ClockStore} keeps the channel's pay period {@link TimesReport} by.
+     */
+    private static String getTimesKey(String channelId, PayPeriod period) {
+        return channelId + " /times " + period.getStartDate() + " " + period.getEndDate();
+    } // End of getTimesKey()
+
+    /**
+     * Starts calculating the {@link TimesReport} of the {@link TextChannel}'s pay period. Gets the channel's members
+     * and their clocks from the channel's {@link ClockIndex} and adds them to a tracker sorted by effective name.
+     * Every member's {@link MemberReport} is then calculated in parallel on {@link #REPORT_EXECUTOR}, and its
+     * problems are recorded in the channel's {@link AnomalyIndex}. Once every report is calculated, the report and
+     * anomaly pages are rendered for the {@link ReportServer}, or without it the invalid and single clocks are written
+     * to "./log.txt" by {@link #logTimesToFile(Guild, TimesReport)}. This happens once per calculated report, so
+     * commands that join it or are answered by a finalized report only send the link.
+     * <p>
+     * Closed pay periods are compacted into a {@link ClockSegment} once their reports are calculated; later commands
+     * for that pay period read the segment instead of the channel's history.
+     *
+     * @param channel The {@link TextChannel} from which the messages are being pulled from.
+     * @param period The {@link PayPeriod} to calculate.
+     * @return The {@link TimesReport} with its {@link MemberReport}s being calculated.
+     */
+    private TimesReport calculateTimes(TextChannel channel, PayPeriod period) {
+        boolean closed = period.isClosed(LocalDate.now(timeZone));
+
+        ClockIndex index;
+        List<CompletableFuture<MemberReport>> reports = new ArrayList<>();
+        ClockSegment segment = closed ? clockStore.getSegments().read(channel.getId(), period) : null;
+        if(segment != null) {
+            index = segment.getIndex();
+            for(MemberReport report : segment.getReports())
+                reports.add(CompletableFuture.completedFuture(report));
+        }
+        else {
+            // Get clocks only from within the pay period.
+            index = getClockIndex(channel);
+            List<Member> members = new ArrayList<>(channel.getMembers());
+            members.sort(Comparator.comparing(m -> m.getEffectiveName().toLowerCase()));
+            LinkedHashMap<Member, int[]> tracker = new LinkedHashMap<>();
+            for(Member m : members)
+                if(!m.getUser().isBot())
+                    addMemberInfoToTracker(tracker, m, index, period);
+
+            for(Map.Entry<Member, int[]> entry : tracker.entrySet())
+                reports.add(CompletableFuture.supplyAsync(
+                        () -> MemberReport.calculate(
+                                index,
+                                entry.getKey().getUser().getId(),
+                                entry.getKey().getEffectiveName(),
+                                entry.getValue(),
+                                period
+                        ),
+                        REPORT_EXECUTOR
+                ));
+
+            // Only compact when the history reaches the start of the pay period; otherwise clocks would be missing.
+            if(closed && index.hasHistorySince(period.getStartDate(), timeZone))
+                compactWhenDone(channel.getId(), period, index, reports);
+        }
+
+        // Record each report's problems for the '/anomalies' command.
+        AnomalyIndex anomalies = clockStore.getAnomalies(channel.getId());
+        List<CompletableFuture<MemberReport>> recordedReports = new ArrayList<>();
+        for(CompletableFuture<MemberReport> report : reports)
+            recordedReports.add(report.thenApply(memberReport -> {
+                anomalies.addReport(index, memberReport);
+                return memberReport;
+            }));
+
+        TimesReport timesReport = new TimesReport(period, index, recordedReports);
+        timesReport.getDone().thenRun(() -> {
+            if(REPORT_SERVER != null)
+                publishTimes(channel, timesReport);
+            else
+                logTimesToFile(channel.getGuild(), timesReport);
+        }).exceptionally(e -> {
+            System.out.println("Failed to publish the times! Cause: " + e.getMessage());
+            return null;
+        });
+        return timesReport;
+    } // End of calculateTimes()
+
+    /**
+     * Writes the pay period's {@link ClockSegment} once all of its {@link MemberReport}s are calculated.
+     *
+     * @param channelId The id of the {@link TextChannel} the clocks are from.
+     * @param period The {@link PayPeriod} of the reports.
+     * @param index The {@link ClockIndex} that contains the rows of the reports.
+     * @param reports The {@link MemberReport}s being calculated.
+     */
+    private void compactWhenDone(
+            String channelId, PayPeriod period, ClockIndex index, List<CompletableFuture<MemberReport>> reports
+    ) {
+        CompletableFuture.allOf(reports.toArray(new CompletableFuture[0])).thenRunAsync(() -> {
+            List<MemberReport> memberReports = new ArrayList<>();
+            for(CompletableFuture<MemberReport> report : reports)
+                memberReports.add(report.join());
+            clockStore.getSegments().write(new ClockSegment(
+                    channelId, period.getStartDate(), period.getEndDate(), index, memberReports
+            ));
+        }, REPORT_EXECUTOR).exceptionally(e -> {
+            System.out.println("Failed to compact the pay period! Cause: " + e.getMessage());
+            return null;
+        });
+    } // End of compactWhenDone()
 
     /**
      * Method that is called when the command '/clocks @{@link User} MM/dd/yy' is used. Gets the {@link User}'s
-     * {@link Message}}s up to two weeks from the entered date. {@link Message}s are then sent to the command user.
+     * {@link Message}}s within the {@link PayPeriod} of the entered date. {@link Message}s are then sent to the
+     * command user.
      *
      * @param cmdUser The {@link User} that entered the command.
      * @param channel The {@link TextChannel} from which the messages are being pulled from.
@@ -373,531 +1153,453 @@ public class TimeTracker extends ListenerAdapter {
      * @param dateAsString The 'MM/dd/yy' parameter given from the '/clocks @{@link User} MM/dd/yy' command.
      */
     private void getClocks(User cmdUser, TextChannel channel, User user, String dateAsString) {
-        List<Message> channelMessages = getChannelMessageHistory(channel);
-        List<Message> userClocks = new ArrayList<>();
-
-        // Get all messages that correspond to the passed in user.
-        for(Message m : channelMessages)
-            if(m.getMentionedUsers().contains(user))
-                userClocks.add(m);
-
         // Get dates to check clock in and out messages.
-        twoWeekStartDate = setStartDate(dateAsString);
-        twoWeekEndDate = setEndDate(twoWeekStartDate);
+        PayPeriod period = PAY_SCHEDULE.getPeriod(PAY_ANCHOR, parseDate(dateAsString), timeZone);
 
-        // Remove messages not between the given dates.
-        List<Message> toRemove = new ArrayList<>();
-        for(Message m : userClocks)
-            if(!isBetweenDates(twoWeekStartDate, twoWeekEndDate, getDateFromMessage(m)))
-                toRemove.add(m);
-        userClocks.removeAll(toRemove);
+        // Get the user's messages between the given dates.
+        ClockIndex index = getClockIndex(channel);
+        int[] userClocks = index.getClocks(user.getId(), period.getStartDate(), period.getEndDate(), timeZone);
 
         // Send the command user the messages.
-        try {
-            PrivateChannel pm = cmdUser.openPrivateChannel().complete();
-            pm.sendMessage(
-                    "__**" + getEffectiveNameOfUser(channel.getGuild(), user) + "** (" + channel.getName() + "):__\n\n"
-                            + messageListToString(userClocks) + "\n"
-            ).queue();
-        } catch (Exception e) {System.out.println("Bot may have been blocked! Cause: " + e.getMessage());}
+        String message = "__**" + getEffectiveNameOfUser(channel.getGuild(), user.getId()) + "** ("
+                + channel.getName() + "):__\n\n"
+                + messageListToString(channel.getGuild(), index, userClocks) + "\n";
+        sendPrivate(cmdUser, pm -> pm.sendMessage(message).queue());
     } // End of getClocks()
 
     /**
-     * Gets the channel's message history up to the number of messages specified by the
-     * {@link #RETRIEVABLE_MESSAGE_AMOUNT} times 100. Default value is 3 for a total of 300 messages.
+     * Method that is called when the command '/anomalies [@{@link User}]' is used. Sends the command user the
+     * problems found with the {@link User}'s clocks (or every member's clocks if no {@link User} is given) straight
+     * from the channel's {@link AnomalyIndex}. Problems are found as clocks are added, edited and deleted (only once
+     * the channel's history is loaded, and only with a {@link #PAY_ANCHOR} for fixed length pay periods), in the
+     * clocks restored from the snapshot (see {@link #findRestoredAnomalies(ClockStore)}), and while '/times MM/dd/yy'
+     * calculates the reports; the reply says so instead of reporting no problems. With the {@link ReportServer} on,
+     * every member's problems also come with the link to the channel's anomalies page.
      *
-     * @param channel The {@link TextChannel} to get message history from.
-     * @return List of past messages up to the {@link #RETRIEVABLE_MESSAGE_AMOUNT} * 100.
+     * @param cmdUser The {@link User} that entered the command.
+     * @param channel The {@link TextChannel} the command was run in.
+     * @param user The {@link User} who's problems are being sent, or null for every member.
      */
-    private List<Message> getChannelMessageHistory(TextChannel channel) {
-        MessageHistory channelHistory = channel.getHistory();
-        for(int i = RETRIEVABLE_MESSAGE_AMOUNT; i > 0; i--) // Default value of 3
-            channelHistory.retrievePast(100).complete();
-        return channelHistory.getCachedHistory();
-    } // End of getChannelMessageHistory()
+    private void getAnomalies(User cmdUser, TextChannel channel, User user) {
+        AnomalyIndex anomalies = clockStore.getAnomalies(channel.getId());
+        List<String> userIds = new ArrayList<>();
+        if(user != null)
+            userIds.add(user.getId());
+        else
+            userIds.addAll(anomalies.getUserIds());
+        userIds.sort(Comparator.comparing(userId -> getEffectiveNameOfUser(channel.getGuild(), userId).toLowerCase()));
+
+        List<String> messages = new ArrayList<>();
+        ClockIndex index = clockStore.findIndex(channel.getId());
+        boolean anchored = PAY_SCHEDULE.isAnchored(PAY_ANCHOR);
+        boolean restored = index != null && index.isRestored() && anchored;
+        if(restored)
+            messages.add("Only the clocks of " + channel.getName() + " restored at startup have been checked; clocks "
+                    + "sent since are checked once its history is loaded, for example by '/times MM/dd/yy'.");
+        if(userIds.isEmpty() && !restored && (index == null || !index.isLoaded()))
+            messages.add("Problems in " + channel.getName() + " are not known yet; they are found once its history is "
+                    + "loaded, for example by '/times MM/dd/yy'.");
+        else if(userIds.isEmpty())
+            messages.add("No problems have been found in " + channel.getName() + "."
+                    + (anchored ? ""
+                            : " New clocks are only checked by '/times MM/dd/yy' until a pay period anchor is set."));
+        else if(REPORT_SERVER != null && user == null) {
+            publishAnomalies(channel);
+            messages.add("Every problem in " + channel.getName() + ": " + getServerUrl(getAnomaliesPath(channel)));
+        }
+
+        for(String userId : userIds) {
+            String str = anomaliesToString(channel.getGuild(), anomalies.getAnomalies(userId));
+            messages.add(
+                    "__**" + getEffectiveNameOfUser(channel.getGuild(), userId) + "** ("
+                            + channel.getName() + ") problems:__\n\n"
+                            + (str.length() > 0 ? str : "N/A") + "\n"
+            );
+        }
+        sendPrivate(cmdUser, pm -> {
+            for(String message : messages)
+                pm.sendMessage(message).queue();
+        });
+    } // End of getAnomalies()
 
     /**
-     * Adds all members and their respective messages to {@link #tracker}. Messages added are ones that only contain
-     * words from {@link #CLOCK_IN_WORDS} and {@link #CLOCK_OUT_WORDS}.
+     * Converts {@link AnomalyIndex.Anomaly}s into a single String, one "timestamp author: content (types)" line each.
      *
-     * @param member The member who's messages will be pulled and stored with in {@link #tracker}.
-     * @param channelMessages The {@link TextChannel} that contains the member's messages.
+     * @param guild The {@link Guild} used to get the authors' effective names.
+     * @param anomalies The {@link AnomalyIndex.Anomaly}s, oldest to newest.
+     * @return The anomalies as a String. ("" if there were no anomalies.)
      */
-    private void addMemberInfoToTracker(Member member, List<Message> channelMessages) {
-        List<Message> userMessages = new ArrayList<>();
+    private String anomaliesToString(Guild guild, List<AnomalyIndex.Anomaly> anomalies) {
+        StringBuilder str = new StringBuilder();
+        for(AnomalyIndex.Anomaly anomaly : anomalies)
+            str.append(getTimeStamp(anomaly.getEpochMilli()))
+                    .append(getEffectiveNameOfUser(guild, anomaly.getAuthorId())).append(": ")
+                    .append(anomaly.getContent())
+                    .append(" (").append(anomaly.getTypeNames()).append(")\n");
+        return str.toString();
+    } // End of anomaliesToString()
 
-        for(Message m : channelMessages) {
-            if(m.isMentioned(member.getUser())) {
-                if(containsClockWords(m.getContent()))
-                    userMessages.add(m);
-            }
+    /**
+     * Renders the {@link TimesReport} as a page of the {@link ReportServer}: every member's clocks, hours, and invalid
+     * and single clocks. The channel's anomaly page is rendered again too, since the reports updated it.
+     *
+     * @param channel The {@link TextChannel} the clocks are from.
+     * @param timesReport The {@link TimesReport} with every report calculated.
+     */
+    private void publishTimes(TextChannel channel, TimesReport timesReport) {
+        Guild guild = channel.getGuild();
+        ClockIndex index = timesReport.getIndex();
+        PayPeriod period = timesReport.getPeriod();
+
+        StringBuilder body = new StringBuilder();
+        for(CompletableFuture<MemberReport> future : timesReport.getReports()) {
+            MemberReport report = future.join();
+            body.append("<h3>").append(ReportServer.escape(report.getName())).append("</h3>\n<pre>")
+                    .append(ReportServer.escape(messageListToString(guild, index, report.getClocks())))
+                    .append("</pre>\n<p>");
+            for(int week = 0; week < report.getWeekCount(); week++)
+                body.append(ReportServer.escape(period.getLabel(week))).append(": ")
+                        .append(report.getWeekHours(week)).append(" hours<br>\n");
+            body.append("Total: ").append(report.getTotalHours()).append(" hours</p>\n");
+
+            if(!report.getInvalidClocks().isEmpty())
+                body.append("<h4>Invalid clocks:</h4>\n<pre>")
+                        .append(ReportServer.escape(clockSetToString(guild, index, report.getInvalidClocks())))
+                        .append("</pre>\n");
+            if(!report.getSingleClocks().isEmpty())
+                body.append("<h4>Single clocks (each corresponding in/out could be an invalid clock):</h4>\n<pre>")
+                        .append(ReportServer.escape(clockSetToString(guild, index, report.getSingleClocks())))
+                        .append("</pre>\n");
         }
 
-        if(userMessages.size() > 0)
-            tracker.put(member, userMessages);
-    } // End of addMemberInfoToTracker()
+        REPORT_SERVER.publish(
+                getReportPath(channel, period),
+                "#" + channel.getName() + " " + period.getStartDate() + " - " + period.getEndDate(),
+                body.toString()
+        );
+        publishAnomalies(channel);
+    } // End of publishTimes()
 
     /**
-     * Checks if a clocked in or out keyword is contained in the message. Key words are populated from the
-     * bot.properties file.
+     * Renders the {@link TextChannel}'s {@link AnomalyIndex} as a page of the {@link ReportServer}. Does nothing if
+     * the server is off.
      *
-     * @param message The message to check.
-     * @return True if a clocked in or out word is contained in the message.
+     * @param channel The {@link TextChannel} of the anomalies.
      */
-    private boolean containsClockWords(String message) {
-        ArrayList<String> clockWords = new ArrayList<>();
-        clockWords.addAll(CLOCK_IN_WORDS);
-        clockWords.addAll(CLOCK_OUT_WORDS);
+    private void publishAnomalies(TextChannel channel) {
+        if(REPORT_SERVER == null)
+            return;
 
-        for(String clockWord : clockWords)
-            if(message.contains(clockWord.toLowerCase()))
-                return true;
+        AnomalyIndex anomalies = clockStore.getAnomalies(channel.getId());
+        List<String> userIds = anomalies.getUserIds();
+        userIds.sort(Comparator.comparing(userId -> getEffectiveNameOfUser(channel.getGuild(), userId).toLowerCase()));
 
-        return false;
-    } // End of containsClockWords()
+        StringBuilder body = new StringBuilder();
+        for(String userId : userIds)
+            body.append("<h3>").append(ReportServer.escape(getEffectiveNameOfUser(channel.getGuild(), userId)))
+                    .append("</h3>\n<pre>")
+                    .append(ReportServer.escape(anomaliesToString(channel.getGuild(), anomalies.getAnomalies(userId))))
+                    .append("</pre>\n");
+        if(userIds.isEmpty())
+            body.append("<p>No problems have been found.</p>\n");
+
+        REPORT_SERVER.publish(getAnomaliesPath(channel), "#" + channel.getName() + " problems", body.toString());
+    } // End of publishAnomalies()
 
     /**
-     * Sets the two week start date based on the dateToStart given.
-     *
-     * @param dateToStart Start date as a String.
-     * @return The twoWeekStartDate.
+     * @param channel The {@link TextChannel} of the report.
+     * @param period The {@link PayPeriod} of the report.
+     * @return The {@link ReportServer} page name of the channel's pay period report.
      */
-    private Date setStartDate(String dateToStart) {
-        Date twoWeekStartDate = new Date();
-        try {
-            twoWeekStartDate = new SimpleDateFormat("MM/dd/yy").parse(dateToStart);
-        } catch (Exception e) {System.out.println("Failed to parse date.");}
+    private static String getReportPath(TextChannel channel, PayPeriod period) {
+        return "/reports/" + channel.getId() + "/" + period.getStartDate() + "_" + period.getEndDate();
+    } // End of getReportPath()
 
-        return twoWeekStartDate;
-    } // End of getStartDate()
+    /**
+     * @param channel The {@link TextChannel} of the anomalies.
+     * @return The {@link ReportServer} page name of the channel's anomalies.
+     */
+    private static String getAnomaliesPath(TextChannel channel) {
+        return "/anomalies/" + channel.getId();
+    } // End of getAnomaliesPath()
 
     /**
-     * Sets the two week end date based on the two week start date.
+     * Gets the link to the details of a report. With the {@link ReportServer} on, this is the report's page behind
+     * {@link #LOG_URL}; otherwise it is {@link #LOG_URL} itself, which shows "./log.txt".
      *
-     * @param twoWeekStartDate The date that the end date is two weeks from.
-     * @return The twoWeekEndDate.
+     * @param channel The {@link TextChannel} of the report.
+     * @param period The {@link PayPeriod} of the report.
+     * @return The link to the report's details.
      */
-    private Date setEndDate(Date twoWeekStartDate) {
-        Calendar calendar = Calendar.getInstance();
+    private static String getLogUrl(TextChannel channel, PayPeriod period) {
+        if(REPORT_SERVER == null)
+            return LOG_URL;
+        return getServerUrl(getReportPath(channel, period));
+    } // End of getLogUrl()
 
-        calendar.setTime(twoWeekStartDate);
-        // 2 Week pay period. Example: Saturday (01/07) -> Friday (01/20) | Sat (01/21) would be a new pay period.
-        calendar.add(Calendar.DAY_OF_YEAR, 13); // That's why 13 instead of 14.
-
-        return calendar.getTime();
-    } // End of getEndDate()
+    /**
+     * @param name The name of a {@link ReportServer} page.
+     * @return The link to the page behind {@link #LOG_URL}.
+     */
+    private static String getServerUrl(String name) {
+        String base = LOG_URL.endsWith("/") ? LOG_URL.substring(0, LOG_URL.length() - 1) : LOG_URL;
+        return base + REPORT_SERVER.getPath(name);
+    } // End of getServerUrl()
 
     /**
-     * Utilizes {@link #isBetweenDates(Date, Date, Date)} in order to trim down {@link #tracker}'s messages to ones
-     * only from the two weeks between the dates given.
+     * Gets the {@link ClockIndex} of the passed in {@link TextChannel}. The channel's message history is only added
+     * to the index the first time; new, edited, and deleted messages keep it up to date afterwards. An index that was
+     * restored from a snapshot only fetches the messages sent since the snapshot.
      *
-     * @param startDate Start of the two weeks. (Messages start here and go to endDate.)
-     * @param endDate End of the two weeks. (Messages start from the startDate and end here.)
+     * @param channel The {@link TextChannel} to get the {@link ClockIndex} of.
+     * @return The {@link TextChannel}'s {@link ClockIndex}.
      */
-    private void trimTrackerMessagesFromDates(Date startDate, Date endDate) {
-        for(Map.Entry<Member, List<Message>> entry : tracker.entrySet()) {
-            List<Message> removableMessages = new ArrayList<>();
-
-            for(Message m : entry.getValue()) {
-                int mDay = 0;
-                try {
-                    // This value is gotten from the given TIMESTAMP value.
-                    // Default TIMESTAMP given starts with MM/dd/yy.
-                    // This substring value will change based on where the DAY_OF_MONTH value is in TIMESTAMP.
-                    mDay = Integer.parseInt(getTimeStamp(m).substring(3,5));
-                } catch (Exception e) {System.out.println("Error getting month value!");}
-
-                Calendar calendar = Calendar.getInstance();
-                calendar.setTime(startDate);
-
-                int day = calendar.get(Calendar.DAY_OF_MONTH);
-
-                if (mDay < day || !isBetweenDates(startDate, endDate, getDateFromMessage(m)))
-                    removableMessages.add(m);
+    private ClockIndex getClockIndex(TextChannel channel) {
+        ClockIndex index = clockStore.getIndex(channel.getId());
+        synchronized (index) {
+            if(index.isRestored()) {
+                MessageHistory channelHistory = channel.getHistory();
+                boolean reachedNewest = false;
+                for(int i = RETRIEVABLE_MESSAGE_AMOUNT; i > 0 && !reachedNewest; i--) {
+                    List<Message> page = channelHistory.retrievePast(100).complete();
+                    reachedNewest = page.size() < 100
+                            || Long.parseLong(page.get(page.size() - 1).getId()) <= index.getNewestId();
+                }
+                index.catchUp(channelHistory.getCachedHistory(), reachedNewest);
+            }
+            else if (!index.isLoaded()) {
+                List<Message> channelMessages = getChannelMessageHistory(channel);
+                index.addAll(channelMessages, channelMessages.size() < RETRIEVABLE_MESSAGE_AMOUNT * 100);
             }
-
-            entry.getValue().removeAll(removableMessages);
         }
-    } // End of trimTackerMessagesFromDates()
+        return index;
+    } // End of getClockIndex()
 
     /**
-     * Checks if the toCheck date is between the startDate and endDate (inclusive).
+     * Gets the channel's message history up to the number of messages specified by the
+     * {@link #RETRIEVABLE_MESSAGE_AMOUNT} times 100. Default value is 3 for a total of 300 messages.
      *
-     * @param startDate The date 1 day ahead of the min.
-     * @param endDate The date 1 day behind the max.
-     * @param toCheck The date to be checked.
-     * @return Whether the toCheck date is between the startDate and endDate inclusively.
+     * @param channel The {@link TextChannel} to get message history from.
+     * @return List of past messages up to the {@link #RETRIEVABLE_MESSAGE_AMOUNT} * 100.
      */
-    private boolean isBetweenDates(Date startDate, Date endDate, Date toCheck) {
-        Calendar calendar = Calendar.getInstance();
-
-        calendar.setTime(startDate);
-        calendar.add(Calendar.DAY_OF_YEAR, -1);
-        Date min = calendar.getTime();
-
-        calendar.setTime(endDate);
-        calendar.add(Calendar.DAY_OF_YEAR, 1);
-        Date max = calendar.getTime();
+    private List<Message> getChannelMessageHistory(TextChannel channel) {
+        MessageHistory channelHistory = channel.getHistory();
+        for(int i = RETRIEVABLE_MESSAGE_AMOUNT; i > 0; i--) // Default value of 3
+            channelHistory.retrievePast(100).complete();
+        return channelHistory.getCachedHistory();
+    } // End of getChannelMessageHistory()
 
-        return toCheck.after(min) && toCheck.before(max);
-    } // End of isBetweenDates()
+    /**
+     * Adds the member and their clocks within the {@link PayPeriod} to the tracker. Clocks added are ones that only
+     * contain words from {@link #CLOCK_IN_WORDS} and {@link #CLOCK_OUT_WORDS}.
+     *
+     * @param tracker The members and the {@link ClockIndex} rows of their clocks.
+     * @param member The member who's clocks will be pulled and stored with in the tracker.
+     * @param index The {@link ClockIndex} of the {@link TextChannel} that contains the member's messages.
+     * @param period The {@link PayPeriod} to get the clocks of.
+     */
+    private void addMemberInfoToTracker(
+            HashMap<Member, int[]> tracker, Member member, ClockIndex index, PayPeriod period
+    ) {
+        int[] userClocks = index.getClocks(
+                member.getUser().getId(), period.getStartDate(), period.getEndDate(), timeZone
+        );
+
+        int count = 0;
+        for(int row : userClocks)
+            if(index.hasClockWords(row))
+                userClocks[count++] = row;
+
+        if(count > 0)
+            tracker.put(member, Arrays.copyOf(userClocks, count));
+    } // End of addMemberInfoToTracker()
 
     /**
-     * Converts a {@link LocalDate} to a {@link Date}.
+     * Parses the date given to a command. Falls back to the current day if the date can not be parsed.
      *
-     * @param message The {@link Message} used to get the Date.
-     * @return The localDate as {@link Date}.
+     * @param dateAsString Date as a 'MM/dd/yy' String.
+     * @return The parsed {@link LocalDate}.
      */
-    private Date getDateFromMessage(Message message) {
-        LocalDate localDate = message.getCreationTime().toLocalDate();
-        return Date.from(localDate.atStartOfDay(timeZone).toInstant());
-    } // End of getDateFromMessage()
+    private LocalDate parseDate(String dateAsString) {
+        try {
+            return new SimpleDateFormat("MM/dd/yy").parse(dateAsString).toInstant()
+                    .atZone(ZoneId.systemDefault()).toLocalDate();
+        } catch (Exception e) {System.out.println("Failed to parse date.");}
+
+        return LocalDate.now(timeZone);
+    } // End of parseDate()
 
     /**
      * Sends the private message containing the clock in and out messages of the {@link Member} with the calculated
-     * hours to the '/times MM/dd/yy' command {@link User}. It also calls {@link #logInvalidsToFile(Member)} and
-     * {@link #logSinglesToFile(Member)} for the {@link Member}.
+     * hours to the '/times MM/dd/yy' command {@link User}. Invalid and single clocks are only pointed to with the
+     * link from {@link #getLogUrl(TextChannel, PayPeriod)}; they were written when the {@link TimesReport} was
+     * calculated.
      *
-     * @param cmdUser The '/times MM/dd/yy' command {@link User}.
+     * @param pm The {@link PrivateChannel} of the '/times MM/dd/yy' command {@link User}.
      * @param channel The {@link TextChannel} the command was run in.
-     * @param member The {@link Member} who's messages and times are being sent.
-     * @param listOfClocks The {@link Message}s of the member that contain the clock in and out times.
+     * @param index The {@link ClockIndex} of the {@link TextChannel}.
+     * @param report The {@link MemberReport} of the {@link Member} who's messages and times are being sent.
+     * @param period The {@link PayPeriod} that contains the "start - end" label of each week.
      */
-    private void sendMemberInfo(User cmdUser, TextChannel channel, Member member, List<Message> listOfClocks) {
-        HashMap<Integer, List<Message>> clocks = splitWeeks(listOfClocks);
-        Collections.reverse(clocks.get(1));
-        Collections.reverse(clocks.get(2));
+    private void sendMemberInfo(
+            PrivateChannel pm, TextChannel channel, ClockIndex index, MemberReport report, PayPeriod period
+    ) {
+        String weeks = "";
+        for(int week = 0; week < report.getWeekCount(); week++)
+            weeks += period.getLabel(week) + ": " + report.getWeekHours(week) + " hours" + "\n\n";
 
         try {
-            PrivateChannel pm = cmdUser.openPrivateChannel().complete();
-            SimpleDateFormat sdf = new SimpleDateFormat("MM/dd/yy (E)");
-            pm.sendMessage("__**" + member.getEffectiveName() + "** (" + channel.getName() + "):__\n\n"
-                    + messageListToString(listOfClocks) + "\n"
-                    + sdf.format((twoWeekStartDate)) + " - "
-                    + sdf.format(getEndOfWeekOne()) + ": "
-                    + getTimeDifferences(clocks.get(1)) + " hours"
-                    + "\n\n"
-                    + sdf.format(getStartOfWeekTwo()) + " - "
-                    + sdf.format(twoWeekEndDate) + ": "
-                    + getTimeDifferences(clocks.get(2)) + " hours"
-                    + "\n\n"
-                    + "Total: " + (getTimeDifferences(clocks.get(1)) + getTimeDifferences(clocks.get(2)))
-                    + " hours"
+            pm.sendMessage("__**" + report.getName() + "** (" + channel.getName() + "):__\n\n"
+                    + messageListToString(channel.getGuild(), index, report.getClocks()) + "\n"
+                    + weeks
+                    + "Total: " + report.getTotalHours() + " hours"
             ).queue();
-            if (invalidClocks.containsKey(member) && invalidClocks.get(member).size() > 0) {
+            if (!report.getInvalidClocks().isEmpty())
                 pm.sendMessage(
-                        "Hours calculated may be invalid due to invalid clocks. Check " + LOG_URL + " for more info."
+                        "Hours calculated may be invalid due to invalid clocks. Check " + getLogUrl(channel, period)
+                                + " for more info."
                 ).queue();
-                logInvalidsToFile(member);
-            }
-            if (singleClocks.containsKey(member) && singleClocks.get(member).size() > 0) {
+            if (!report.getSingleClocks().isEmpty())
                 pm.sendMessage(
-                        "Hours calculated may be invalid due to missing clocks. Check " + LOG_URL + " for more info."
+                        "Hours calculated may be invalid due to missing clocks. Check " + getLogUrl(channel, period)
+                                + " for more info."
                 ).queue();
-                logSinglesToFile(member);
-            }
-            if(invalidClocks.containsKey(member) || singleClocks.containsKey(member))
-                if(invalidClocks.get(member).size() > 0 || singleClocks.get(member).size() > 0)
-                    try {
-                        Files.write(Paths.get("./log.txt"), "\n\n--------------------\n\n".getBytes(), StandardOpenOption.APPEND);
-                    } catch (Exception e) {e.printStackTrace();}
         } catch (Exception e) {System.out.println("Bot may have been blocked! Cause: " + e.getMessage());}
     } // End of sendMemberInfo()
 
     /**
-     * Logs the {@link #invalidClocks} to "./log.txt".
+     * Wipes "./log.txt" and writes the invalid and single clocks of every {@link MemberReport} of the calculated
+     * {@link TimesReport} with {@link #logInvalidsToFile(Guild, MemberReport, ClockIndex)} and
+     * {@link #logSinglesToFile(Guild, MemberReport, ClockIndex)}.
      *
-     * @param member The {@link Member} to which the invalid clocks belong to.
+     * @param guild The {@link Guild} used to get the authors' effective names.
+     * @param timesReport The {@link TimesReport} with every report calculated.
      */
-    private void logInvalidsToFile(Member member) {
-        String content = "<h3>Invalid clocks for " + member.getEffectiveName() + ":</h3>";
-        for (Message m : invalidClocks.get(member))
-            content +=
-                    "   " + getTimeStamp(m)
-                    + getEffectiveNameOfUser(m.getGuild(), m.getAuthor()) + ": " + m.getContent() + "\n"
-            ;
+    private void logTimesToFile(Guild guild, TimesReport timesReport) {
+        try {
+            Files.write(Paths.get("./log.txt"), "".getBytes());
+        } catch (Exception e) {e.printStackTrace();}
+
+        for(CompletableFuture<MemberReport> future : timesReport.getReports()) {
+            MemberReport report = future.join();
+            boolean hasInvalids = !report.getInvalidClocks().isEmpty();
+            boolean hasSingles = !report.getSingleClocks().isEmpty();
+            if(hasInvalids)
+                logInvalidsToFile(guild, report, timesReport.getIndex());
+            if(hasSingles)
+                logSinglesToFile(guild, report, timesReport.getIndex());
+            if(hasInvalids || hasSingles)
+                try {
+                    Files.write(Paths.get("./log.txt"), "\n\n--------------------\n\n".getBytes(), StandardOpenOption.APPEND);
+                } catch (Exception e) {e.printStackTrace();}
+        }
+    } // End of logTimesToFile()
+
+    /**
+     * Logs the {@link MemberReport}'s invalid clocks to "./log.txt".
+     *
+     * @param guild The {@link Guild} used to get the authors' effective names.
+     * @param report The {@link MemberReport} to which the invalid clocks belong to.
+     * @param index The {@link ClockIndex} that contains the invalid clocks.
+     */
+    private void logInvalidsToFile(Guild guild, MemberReport report, ClockIndex index) {
+        String content = "<h3>Invalid clocks for " + report.getName() + ":</h3>";
+        content += clockSetToString(guild, index, report.getInvalidClocks());
         try {
             Files.write(Paths.get("./log.txt"), content.getBytes(), StandardOpenOption.APPEND);
         } catch (Exception e) {e.printStackTrace();}
     } // End of logInvalidsToFile()
 
     /**
-     * Logs the {@link #singleClocks} to the "./log.txt".
+     * Logs the {@link MemberReport}'s single clocks to the "./log.txt".
      *
-     * @param member The {@link Member} to which the single clocks belong to.
+     * @param guild The {@link Guild} used to get the authors' effective names.
+     * @param report The {@link MemberReport} to which the single clocks belong to.
+     * @param index The {@link ClockIndex} that contains the single clocks.
      */
-    private void logSinglesToFile(Member member) {
+    private void logSinglesToFile(Guild guild, MemberReport report, ClockIndex index) {
         String content =
-                "<h3>Single clocks for " + member.getEffectiveName()
+                "<h3>Single clocks for " + report.getName()
                 + " (each corresponding in/out could be an invalid clock):</h3>"
         ;
-        for (Message m : singleClocks.get(member))
-            content +=
-                    "   " + getTimeStamp(m)
-                    + getEffectiveNameOfUser(m.getGuild(), m.getAuthor()) + ": " + m.getContent() + "\n"
-            ;
+        content += clockSetToString(guild, index, report.getSingleClocks());
         try {
             Files.write(Paths.get("./log.txt"), content.getBytes(), StandardOpenOption.APPEND);
         } catch (Exception e) {e.printStackTrace();}
     } // End of logSinglesToFile()
 
     /**
-     * Splits up the passed in {@link List} of {@link Message}s into two weeks based on the message's timestamp.
-     * HashMap's Integer = Week Number
+     * Converts a {@link BitSet} of rows into the indented lines used by the log file.
      *
-     * @param clocks {@link List} of passed in {@link Message}s.
-     * @return HashMap of {@link Message}s with the key being the week.
+     * @param guild The {@link Guild} used to get the authors' effective names.
+     * @param index The {@link ClockIndex} that contains the rows.
+     * @param rows The rows to convert.
+     * @return The rows as a String.
      */
-    private HashMap<Integer, List<Message>> splitWeeks(List<Message> clocks) {
-        HashMap<Integer, List<Message>> sortedClocks = new HashMap<>();
-        List<Message> weekOneMessages = new ArrayList<>();
-        List<Message> weekTwoMessages = new ArrayList<>();
-
-        for(Message m : clocks) {
-            if(isWeekOne(getDateFromMessage(m)))
-                weekOneMessages.add(m);
-            else
-                weekTwoMessages.add(m);
-        }
-
-        sortedClocks.put(1, weekOneMessages);
-        sortedClocks.put(2, weekTwoMessages);
-
-        return sortedClocks;
-    } // End of splitWeeks()
+    private String clockSetToString(Guild guild, ClockIndex index, BitSet rows) {
+        StringBuilder str = new StringBuilder();
+        for(int row = rows.nextSetBit(0); row >= 0; row = rows.nextSetBit(row + 1))
+            str.append("   ").append(clockToString(guild, index, row)).append("\n");
+        return str.toString();
+    } // End of clockSetToString()
 
     /**
-     * Gets the time differences between in and out clocks from the {@link List} of {@link DiscordClock}s received
-     * from {@link #createDiscordClocks(List)} after passing in the {@link List} of {@link Message}s (param clocks).
-     * Also adds single clocks to {@link #singleClocks} (a clock-in missing a clock-out) for future logging with
-     * {@link #logSinglesToFile(Member)}.
+     * Converts rows into a single String, one line per row.
      *
-     * @param clocks {@link List} of {@link Message}s that contains the clock ins/outs from Discord.
-     * @return The calculated hours between the passed in clocks.
+     * @param guild The {@link Guild} used to get the authors' effective names.
+     * @param index The {@link ClockIndex} that contains the rows.
+     * @param rows The rows, oldest to newest.
+     * @return The rows as a String. ("N/A" if there were no rows.)
      */
-    private double getTimeDifferences(List<Message> clocks) {
-        Member authorOfClocks = null;
-        if(clocks.size() > 0)
-            authorOfClocks = clocks.get(0).getGuild().getMember(clocks.get(0).getMentionedUsers().get(0));
-        List<Message> singles = new ArrayList<>();
-
-        List<DiscordClock> dClocks = createDiscordClocks(clocks);
-        double total = 0;
-
-        for(int i = 0; i < dClocks.size() - 1; i++) {
-            DiscordClock in, out;
-            if(dClocks.get(i).getType().equalsIgnoreCase("In")) {
-                if (dClocks.get(i + 1).getType().equalsIgnoreCase("Out")) {
-                    in = dClocks.get(i);
-                    out = dClocks.get(i + 1);
-                    total += out.getTime() - in.getTime();
-                }
-                else
-                    singles.add(dClocks.get(i).getMessage());
-            }
-            else if(dClocks.get(i).getType().equalsIgnoreCase("Out"))
-                if(!dClocks.get(i + 1).getType().equalsIgnoreCase("In"))
-                    singles.add(dClocks.get(i + 1).getMessage());
-        }
+    private String messageListToString(Guild guild, ClockIndex index, int[] rows) {
+        StringBuilder str = new StringBuilder();
+        for(int row : rows)
+            str.append(clockToString(guild, index, row)).append("\n");
 
-        // Last message is not checked in loop above.
-        if(dClocks.size() > 0 && containsClockIn(dClocks.get(dClocks.size() - 1).getMessage()))
-            singles.add(dClocks.get(dClocks.size() - 1).getMessage());
-
-        // If the first message is an out, that means it is missing the in for it. Also not checked in loop above.
-        if(dClocks.size() > 0 && dClocks.get(0).getType().equalsIgnoreCase("Out"))
-            singles.add(dClocks.get(0).getMessage());
-
-        if(authorOfClocks != null) {
-            if(singleClocks.containsKey(authorOfClocks)) {
-                List<Message> adds = singleClocks.get(authorOfClocks);
-                List<Message> newSingles = new ArrayList<>();
-
-                for(Message m : singles)
-                    if(!adds.contains(m))
-                        newSingles.add(m);
-                adds.addAll(newSingles);
-
-                singleClocks.put(authorOfClocks, adds);
-            }
-            else
-                singleClocks.put(authorOfClocks, singles);
-        }
-
-        return total;
-    } // End of getTimeDifferences()
-
-    /**
-     * Creates a {@link List} of {@link DiscordClock}s from the {@link List} of {@link Message}s passed in. It also adds
-     * invalid clock ins/outs to {@link #invalidClocks} for future logging with {@link #logInvalidsToFile(Member)}.
-     *
-     * @param clocks {@link List} of {@link Message}s that contains the clock ins/outs from Discord.
-     * @return A {@link List} of {@link DiscordClock}s to be used for time calculations in {@link #getTimeDifferences(List)}.
-     */
-    private List<DiscordClock> createDiscordClocks(List<Message> clocks) {
-        Member authorOfClocks = null;
-        if(clocks.size() > 0)
-            authorOfClocks = clocks.get(0).getGuild().getMember(clocks.get(0).getMentionedUsers().get(0));
-        List<Message> invalidClockMessages = new ArrayList<>();
-        List<DiscordClock> dClocks = new ArrayList<>();
-        SimpleDateFormat sdf = new SimpleDateFormat("MM/dd/yy hh:mm a");
-
-        for(Message message : clocks) {
-            int month = message.getCreationTime().getMonthValue();
-            int day = message.getCreationTime().getDayOfMonth();
-            int year = message.getCreationTime().getYear();
-            // Based on the clock message have "XX:XX XM" at the end.
-            String time = message.getContent().substring(message.getContent().length()-8);
-
-            if(!endsWithMeridiem(message))
-                invalidClockMessages.add(message);
-            else {
-                try {
-                    String type;
-                    if (containsClockIn(message))
-                        type = "In";
-                    else
-                        type = "Out";
-
-                    Date timestamp = sdf.parse(month + "/" + day + "/" + year + " " + time);
-
-                    dClocks.add(new DiscordClock(type, message, timestamp));
-
-                } catch (Exception e) {
-                    invalidClockMessages.add(message);
-                }
-            }
-        }
-
-        if(authorOfClocks != null) {
-            if(invalidClocks.containsKey(authorOfClocks)) {
-                List<Message> adds = invalidClocks.get(authorOfClocks);
-                List<Message> newInvalids = new ArrayList<>();
-
-                for (Message m : invalidClockMessages)
-                    if (!adds.contains(m))
-                        newInvalids.add(m);
-                adds.addAll(newInvalids);
-
-                invalidClocks.put(authorOfClocks, adds);
-            }
-            else
-                invalidClocks.put(authorOfClocks, invalidClockMessages);
-        }
-
-        return dClocks;
-    } // End of createDiscordClocks()
-
-    /**
-     * Check if the date passed in is from the first week based on the {@link #twoWeekStartDate}.
-     *
-     * @param toCheck Date to be checked.
-     * @return Whether toCheck date falls within the first week based on the {@link #twoWeekStartDate}.
-     */
-    private boolean isWeekOne(Date toCheck) {
-        Calendar calendar = Calendar.getInstance();
-        calendar.setTime(twoWeekStartDate);
-        calendar.add(Calendar.DAY_OF_YEAR, 6); // Saturday to Friday (First week).
-
-        return isBetweenDates(twoWeekStartDate, calendar.getTime(), toCheck);
-    } // End of isWeekOne()
-
-    /**
-     * Gets the end {@link Date} of week one of the pay period.
-     *
-     * @return The end {@link Date} of week one.
-     */
-    private Date getEndOfWeekOne() {
-        Calendar calendar = Calendar.getInstance();
-        calendar.setTime(twoWeekStartDate);
-        calendar.add(Calendar.DAY_OF_YEAR, 6); // Saturday to Friday (First week).
-
-        return calendar.getTime();
-    } // End of getEndOfWeekOne()
-
-    /**
-     * Gets the start date of week two of the pay period for message formatting.
-     *
-     * @return The start {@link Date} of week two.
-     */
-    private Date getStartOfWeekTwo() {
-        Calendar calendar = Calendar.getInstance();
-        calendar.setTime(twoWeekStartDate);
-        calendar.add(Calendar.DAY_OF_YEAR, 7); // Saturday of week 2 (start).
-
-        return calendar.getTime();
-    } // End of getStartOfWeekTwo()
+        if(str.length() < 1) // No messages between the start and end date.
+            return "N/A";
 
-    /**
-     * Checks if a {@link Message} has a clock in key word. It also checks for clock outs via the return
-     * value of false. (There are only clock in and out messages being passed into this method; extraneous messages
-     * are non-existent.)
-     *
-     * @param message {@link Message} to be checked.
-     * @return Whether the message passed in contains a clock in (true) or clock out (false) key word.
-     */
-    private boolean containsClockIn(Message message) {
-        for(String clockInWord : CLOCK_IN_WORDS)
-            if(message.getContent().toLowerCase().contains(" " + clockInWord.toLowerCase() + " "))
-                return true;
-        return false;
-    } // End of containsClockIn()
+        return str.toString();
+    } // End of messageListToString()
 
     /**
-     * Converts a {@link List} of {@link Message}s into a single String.
+     * Renders a row as "timestamp author: content".
      *
-     * @param list The {@link List} of {@link Message}s.
-     * @return The {@link List} of {@link Message}s as a String. ("N/A" if there were no messages.)
+     * @param guild The {@link Guild} used to get the author's effective name.
+     * @param index The {@link ClockIndex} that contains the row.
+     * @param row The row.
+     * @return The row as a String.
      */
-    private String messageListToString(List<Message> list) {
-        Collections.reverse(list); // Reverse the order of messages -> oldest to newest.
-
-        String str = "";
-        for(Message m : list)
-            str += getTimeStamp(m) + getEffectiveNameOfUser(m.getGuild(), m.getAuthor()) + ": " + m.getContent() + "\n";
-
-        if(str.length() < 1) // No messages between the start and end date.
-            return "N/A";
-
-        return str;
-    } // End of messageListToString()
+    private String clockToString(Guild guild, ClockIndex index, int row) {
+        return getTimeStamp(index.getEpochMilli(row))
+                + getEffectiveNameOfUser(guild, index.getAuthorId(row)) + ": " + index.getContent(row);
+    } // End of clockToString()
 
     /**
-     * Gets the effective name of the passed in {@link User} from the passed in {@link Guild}. This is needed when
-     * only the {@link User} is available and not the {@link Member}.
+     * Gets the effective name of the {@link User} with the passed in id from the passed in {@link Guild}. This is
+     * needed when only the {@link User} is available and not the {@link Member}.
      *
      * @param guild Guild that the {@link User}'s effective name is on.
-     * @param user {@link User} the method gets the effective name for.
+     * @param userId The id of the {@link User} the method gets the effective name for.
      * @return The effective name of the passed in {@link User} of the passed in {@link Guild} or "Unknown".
      */
-    private String getEffectiveNameOfUser(Guild guild, User user) {
-        for (Member m : guild.getMembers())
-            if(m.getUser() == user)
-                return m.getEffectiveName();
-        return "Unknown"; // The passed in user was not found in the passed in guild.
+    private String getEffectiveNameOfUser(Guild guild, String userId) {
+        Member member = guild.getMemberById(userId);
+        if(member == null)
+            return "Unknown"; // The passed in user was not found in the passed in guild.
+        return member.getEffectiveName();
     } // end of getEffectiveNameOfUser()
 
     /**
-     * Formats the {@link Message}'s timestamp using {@link #TIMESTAMP} as the pattern. {@link #TIMESTAMP} is
+     * Formats the epoch milliseconds using {@link #TIMESTAMP} as the pattern. {@link #TIMESTAMP} is
      * initialized via the bot.properties file.
      *
-     * @param message {@link Message} being passed in.
-     * @return A string value of the ldt in the format of {@link #TIMESTAMP}.
+     * @param epochMilli The time a message was sent in epoch milliseconds.
+     * @return A string value of the time in the format of {@link #TIMESTAMP}.
      */
-    private String getTimeStamp(Message message) {
-        Temporal ldt = message.getCreationTime().atZoneSameInstant(timeZone).toLocalDateTime();
+    private String getTimeStamp(long epochMilli) {
+        Temporal ldt = Instant.ofEpochMilli(epochMilli).atZone(timeZone).toLocalDateTime();
         DateTimeFormatter fmt = DateTimeFormatter.ofPattern(TIMESTAMP);
         return fmt.format(ldt);
     } // End of getTimeStamp()
-
-    /**
-     * Helps validate clocks by checking if the last 3 digits contains a space followed by a meridiem.
-     *
-     * @param message {@link Message} to check.
-     * @return Whether the message contains a meridiem at the end.
-     */
-    private boolean endsWithMeridiem(Message message) {
-        String meridiemCheck = message.getContent().substring(message.getContent().length() - 3);
-        return (meridiemCheck.equalsIgnoreCase(" am") || meridiemCheck.equalsIgnoreCase(" pm"));
-    } // End of endsWithMeridiem()
 }
@@ -0,0 +1,63 @@
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * TimesReport contains one run of the '/times MM/dd/yy' command for a channel's pay period. Identical commands that
+ * are entered while it runs are given the same TimesReport (see {@link ClockStore#getTimesReport}) instead of
+ * fetching and calculating everything again. Values are as follows:<br>
+ * {@link #period} = The {@link PayPeriod} of the reports.<br>
+ * {@link #index} = The {@link ClockIndex} that contains the rows of the reports.<br>
+ * {@link #reports} = The {@link MemberReport}s being calculated, in the order they are sent.
+ */
+class TimesReport {
+
+    /**
+     * The {@link PayPeriod} of the reports.
+     */
+    private final PayPeriod period;
+
+    /**
+     * The {@link ClockIndex} that contains the rows of the reports.
+     */
+    private final ClockIndex index;
+
+    /**
+     * The {@link MemberReport}s being calculated, in the order they are sent.
+     */
+    private final List<CompletableFuture<MemberReport>> reports;
+
+    /**
+     * Creates a {@link TimesReport}.
+     *
+     * @param period The {@link PayPeriod} of the reports.
+     * @param index The {@link ClockIndex} that contains the rows of the reports.
+     * @param reports The {@link MemberReport}s being calculated.
+     */
+    TimesReport(PayPeriod period, ClockIndex index, List<CompletableFuture<MemberReport>> reports) {
+        this.period = period;
+        this.index = index;
+        this.reports = reports;
+    }
+
+    /**
+     * @return A {@link CompletableFuture} that completes once every {@link MemberReport} is calculated.
+     */
+    CompletableFuture<Void> getDone() {
+        return CompletableFuture.allOf(reports.toArray(new CompletableFuture[0]));
+    } // End of getDone()
+
+    /**
+     * @return The {@link #period} of the {@link TimesReport}.
+     */
+    PayPeriod getPeriod() { return period; }
+
+    /**
+     * @return The {@link #index} of the {@link TimesReport}.
+     */
+    ClockIndex getIndex() { return index; }
+
+    /**
+     * @return The {@link #reports} of the {@link TimesReport}.
+     */
+    List<CompletableFuture<MemberReport>> getReports() { return reports; }
+}
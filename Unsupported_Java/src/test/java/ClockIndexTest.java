@@ -0,0 +1,86 @@
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * ClockIndexTest checks that a {@link ClockIndex} snapshot restores the same clocks it was written from.
+ */
+public class ClockIndexTest {
+
+    /**
+     * The timezone the clocks are looked up in.
+     */
+    private static final ZoneId TIME_ZONE = ZoneId.of("America/New_York");
+
+    /**
+     * Checks that the rows, their columns and every user's rows survive a snapshot, without the removed clocks.
+     */
+    @Test
+    public void snapshotRoundTrip() throws IOException {
+        long start = ClockIndex.toSnowflake(LocalDate.of(2026, 10, 5).atTime(9, 0).atZone(TIME_ZONE).toInstant()
+                .toEpochMilli());
+        ClockIndex index = new ClockIndex();
+        index.add(start, "a", "@Bob is in at 9:00 AM", Collections.singletonList("bob"));
+        index.add(start + 1, "a", "@Ann @Bob are in", Arrays.asList("ann", "bob"));
+        index.add(start + 2, "b", "@Bob is out at 5:30 PM \u2713", Collections.singletonList("bob"));
+        index.add(start + 3, "b", "@Ann is out at 5:00 PM", Collections.singletonList("ann"));
+        assertTrue(index.remove(Long.toString(start + 3)));
+
+        ClockIndex restored = roundTrip(index);
+        assertTrue(restored.isRestored());
+        assertFalse(restored.isLoaded());
+        LocalDate day = LocalDate.of(2026, 10, 5);
+        int[] bob = restored.getClocks("bob", day, day, TIME_ZONE);
+        assertEquals(3, bob.length);
+        for(int i = 0; i < bob.length; i++) {
+            int row = index.getClocks("bob", day, day, TIME_ZONE)[i];
+            assertEquals(index.getId(row), restored.getId(bob[i]));
+            assertEquals(index.getAuthorId(row), restored.getAuthorId(bob[i]));
+            assertEquals(index.getContent(row), restored.getContent(bob[i]));
+            assertEquals(index.getMinute(row), restored.getMinute(bob[i]));
+            assertEquals(index.getTime(row), restored.getTime(bob[i]));
+            assertEquals(index.isClockIn(row), restored.isClockIn(bob[i]));
+            assertEquals(index.hasMeridiem(row), restored.hasMeridiem(bob[i]));
+        }
+        assertEquals("@Bob is out at 5:30 PM \u2713", restored.getContent(bob[2]));
+
+        int[] ann = restored.getClocks("ann", day, day, TIME_ZONE);
+        assertArrayEquals(new int[] {bob[1]}, ann);
+        assertFalse(restored.contains(start + 3, "ann"));
+
+        // The restored index is compacted, so a second snapshot is the same.
+        assertArrayEquals(write(restored), write(roundTrip(restored)));
+    } // End of snapshotRoundTrip()
+
+    /**
+     * @param index The index to write.
+     * @return The index read back from its snapshot.
+     */
+    private static ClockIndex roundTrip(ClockIndex index) throws IOException {
+        return ClockIndex.readSnapshot(ByteBuffer.wrap(write(index)));
+    } // End of roundTrip()
+
+    /**
+     * @param index The index to write.
+     * @return The snapshot of the index.
+     */
+    private static byte[] write(ClockIndex index) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            index.writeSnapshot(out);
+        }
+        return bytes.toByteArray();
+    } // End of write()
+}
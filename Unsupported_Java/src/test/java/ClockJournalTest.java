@@ -0,0 +1,143 @@
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * ClockJournalTest checks that {@link ClockJournal} batches are replayed in order, and that a batch that was only
+ * partly written or does not match its CRC32 ends the journal without losing the batches before it.
+ */
+public class ClockJournalTest {
+
+    /**
+     * The folder the journal files are written to.
+     */
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Checks that every entry is read back with its values, oldest batch first.
+     */
+    @Test
+    public void replay() throws IOException {
+        ClockJournal journal = new ClockJournal(folder.getRoot().toPath().resolve("clocks.journal"));
+        journal.append(Arrays.asList(
+                ClockJournal.Entry.add(10, "c", "a", "@Bob is in at 9:00 AM", Arrays.asList("u1", "u2")),
+                ClockJournal.Entry.remove(11, "c")
+        ));
+        journal.append(Collections.singletonList(
+                ClockJournal.Entry.add(12, "c", "a", "\u00fcn\u00ef \u2713", Arrays.asList("u1"))
+        ));
+
+        List<ClockJournal.Entry> entries = replay(journal);
+        assertEquals(3, entries.size());
+        assertEquals(ClockJournal.ADD, entries.get(0).getType());
+        assertEquals(10, entries.get(0).getId());
+        assertEquals("c", entries.get(0).getChannelId());
+        assertEquals("a", entries.get(0).getAuthorId());
+        assertEquals("@Bob is in at 9:00 AM", entries.get(0).getContent());
+        assertEquals(Arrays.asList("u1", "u2"), entries.get(0).getMentionedUserIds());
+        assertEquals(ClockJournal.REMOVE, entries.get(1).getType());
+        assertEquals(11, entries.get(1).getId());
+        assertNull(entries.get(1).getContent());
+        assertEquals("\u00fcn\u00ef \u2713", entries.get(2).getContent());
+    } // End of replay()
+
+    /**
+     * Checks that a last batch that was cut off is ignored and cut from the file, so later batches are read again.
+     */
+    @Test
+    public void truncatedLastBatch() throws IOException {
+        Path path = folder.getRoot().toPath().resolve("clocks.journal");
+        ClockJournal journal = new ClockJournal(path);
+        journal.append(Collections.singletonList(entry(1)));
+        long goodLength = Files.size(path);
+        journal.append(Collections.singletonList(entry(2)));
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.setLength(Files.size(path) - 3);
+        }
+
+        assertEquals(Collections.singletonList(1L), getIds(replay(journal)));
+        assertEquals(goodLength, Files.size(path));
+
+        journal.append(Collections.singletonList(entry(3)));
+        assertEquals(Arrays.asList(1L, 3L), getIds(replay(journal)));
+    } // End of truncatedLastBatch()
+
+    /**
+     * Checks that a last batch whose bytes do not match its CRC32 is ignored and cut from the file.
+     */
+    @Test
+    public void corruptedLastBatch() throws IOException {
+        Path path = folder.getRoot().toPath().resolve("clocks.journal");
+        ClockJournal journal = new ClockJournal(path);
+        journal.append(Collections.singletonList(entry(1)));
+        long goodLength = Files.size(path);
+        journal.append(Collections.singletonList(entry(2)));
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.seek(Files.size(path) - 1);
+            int last = file.read();
+            file.seek(Files.size(path) - 1);
+            file.write(last ^ 0xFF);
+        }
+
+        assertEquals(Collections.singletonList(1L), getIds(replay(journal)));
+        assertEquals(goodLength, Files.size(path));
+    } // End of corruptedLastBatch()
+
+    /**
+     * Checks that a file left over from a failed snapshot is replayed before the current journal, and that
+     * {@link ClockJournal#clear()} deletes both.
+     */
+    @Test
+    public void rotateAndClear() throws IOException {
+        ClockJournal journal = new ClockJournal(folder.getRoot().toPath().resolve("clocks.journal"));
+        journal.append(Collections.singletonList(entry(1)));
+        journal.rotate();
+        journal.append(Collections.singletonList(entry(2)));
+
+        assertEquals(Arrays.asList(1L, 2L), getIds(replay(journal)));
+        assertEquals(true, journal.clear());
+        assertEquals(0, replay(journal).size());
+    } // End of rotateAndClear()
+
+    /**
+     * @param id The message id of the clock.
+     * @return An {@link ClockJournal#ADD} entry of a clock in channel "c".
+     */
+    private static ClockJournal.Entry entry(long id) {
+        return ClockJournal.Entry.add(id, "c", "a", "@Bob is in at 9:00 AM", Collections.singletonList("u"));
+    } // End of entry()
+
+    /**
+     * @param journal The journal to replay.
+     * @return The entries of the journal, oldest first.
+     */
+    private static List<ClockJournal.Entry> replay(ClockJournal journal) throws IOException {
+        List<ClockJournal.Entry> entries = new ArrayList<>();
+        journal.replay(entries::add);
+        return entries;
+    } // End of replay()
+
+    /**
+     * @param entries The entries to get the ids of.
+     * @return The message ids of the entries.
+     */
+    private static List<Long> getIds(List<ClockJournal.Entry> entries) {
+        List<Long> ids = new ArrayList<>();
+        for(ClockJournal.Entry entry : entries)
+            ids.add(entry.getId());
+        return ids;
+    } // End of getIds()
+}
@@ -0,0 +1,110 @@
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * ClockSegmentTest checks the variable length numbers of {@link ClockSegment}s and that a written segment is read
+ * back with the same clocks and totals.
+ */
+public class ClockSegmentTest {
+
+    /**
+     * The timezone the pay period is in.
+     */
+    private static final ZoneId TIME_ZONE = ZoneId.of("America/New_York");
+
+    /**
+     * The folder the segment files are written to.
+     */
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Checks numbers around each 7 bit boundary and how many bytes they take.
+     */
+    @Test
+    public void varLongRoundTrip() throws IOException {
+        long[] values = {0, 1, 127, 128, 16383, 16384, Integer.MAX_VALUE, 1L << 56, Long.MAX_VALUE, -1};
+        int[] sizes = {1, 1, 1, 2, 2, 3, 5, 9, 9, 10};
+        for(int i = 0; i < values.length; i++) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            ClockSegment.writeVarLong(new DataOutputStream(bytes), values[i]);
+            assertEquals("Size of " + values[i], sizes[i], bytes.size());
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+            assertEquals(values[i], ClockSegment.readVarLong(in));
+        }
+    } // End of varLongRoundTrip()
+
+    /**
+     * Checks that the header, every member's clocks, flags and week totals survive writing and reading a segment.
+     */
+    @Test
+    public void segmentRoundTrip() throws IOException {
+        LocalDate start = LocalDate.of(2026, 10, 5);
+        PayPeriod period = new PayPeriod(start, start.plusDays(13), TIME_ZONE, false);
+        long id = ClockIndex.toSnowflake(start.atTime(9, 0).atZone(TIME_ZONE).toInstant().toEpochMilli());
+        long hour = ClockIndex.toSnowflake(ClockIndex.toEpochMilli(0) + 3_600_000L);
+        ClockIndex index = new ClockIndex();
+        index.add(id, "1", "@Bob is in at 9:00 AM", Collections.singletonList("20"));
+        index.add(id + 8 * hour, "1", "@Bob is out at 5:00 PM", Collections.singletonList("20"));
+        index.add(id + 24 * hour, "2", "@Bob is in at 9", Collections.singletonList("20"));
+        index.add(id + 25 * hour, "2", "@Ann is in at 10:00 AM \u00e9", Collections.singletonList("30"));
+
+        List<MemberReport> reports = Arrays.asList(report(index, "20", "Bob", period),
+                report(index, "30", "Ann", period));
+        Path path = folder.getRoot().toPath().resolve("segment");
+        new ClockSegment("10", period.getStartDate(), period.getEndDate(), index, reports).write(path);
+        ClockSegment segment = ClockSegment.read(path);
+
+        assertEquals("10", segment.getChannelId());
+        assertEquals(period.getStartDate(), segment.getStartDate());
+        assertEquals(period.getEndDate(), segment.getEndDate());
+        assertEquals(reports.size(), segment.getReports().size());
+        for(int member = 0; member < reports.size(); member++) {
+            MemberReport expected = reports.get(member);
+            MemberReport actual = segment.getReports().get(member);
+            assertEquals(expected.getUserId(), actual.getUserId());
+            assertEquals(expected.getName(), actual.getName());
+            assertEquals(expected.getWeekCount(), actual.getWeekCount());
+            for(int week = 0; week < expected.getWeekCount(); week++)
+                assertEquals(expected.getWeekHours(week), actual.getWeekHours(week), 0);
+            assertEquals(expected.getClocks().length, actual.getClocks().length);
+            for(int clock = 0; clock < expected.getClocks().length; clock++) {
+                int expectedRow = expected.getClocks()[clock];
+                int actualRow = actual.getClocks()[clock];
+                assertEquals(index.getId(expectedRow), segment.getIndex().getId(actualRow));
+                assertEquals(index.getAuthorId(expectedRow), segment.getIndex().getAuthorId(actualRow));
+                assertEquals(index.getContent(expectedRow), segment.getIndex().getContent(actualRow));
+                assertEquals(expected.getInvalidClocks().get(expectedRow), actual.getInvalidClocks().get(actualRow));
+                assertEquals(expected.getSingleClocks().get(expectedRow), actual.getSingleClocks().get(actualRow));
+            }
+        }
+        assertEquals(8.0, segment.getReports().get(0).getTotalHours(), 0);
+    } // End of segmentRoundTrip()
+
+    /**
+     * @param index The index with the member's clocks.
+     * @param userId The id of the member.
+     * @param name The name of the member.
+     * @param period The pay period of the report.
+     * @return The member's calculated {@link MemberReport}.
+     */
+    private static MemberReport report(ClockIndex index, String userId, String name, PayPeriod period) {
+        int[] rows = index.getClocks(userId, period.getStartDate(), period.getEndDate(), TIME_ZONE);
+        return MemberReport.calculate(index, userId, name, rows, period);
+    } // End of report()
+}
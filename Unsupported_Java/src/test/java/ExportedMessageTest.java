@@ -0,0 +1,65 @@
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * ExportedMessageTest checks that the lines of an exported channel history are parsed like the messages the bot
+ * receives.
+ */
+public class ExportedMessageTest {
+
+    /**
+     * Checks that the kept values are read and every other value is skipped, including nested ones.
+     */
+    @Test
+    public void parse() {
+        ExportedMessage message = ExportedMessage.parse("{\"id\": \"500\", \"channel_id\": \"10\", \"type\": 0, "
+                + "\"embeds\": [{\"fields\": [{\"name\": \"x\", \"value\": \"]}\"}]}], \"pinned\": false, "
+                + "\"author\": {\"id\": \"1\", \"username\": \"Al\", \"avatar\": null, \"flags\": {\"a\": [1, 2]}}, "
+                + "\"content\": \"@Bob is in at 9:00 AM\", \"edited_timestamp\": null, \"mentions\": []}");
+        assertEquals(500, message.getId());
+        assertEquals("10", message.getChannelId());
+        assertEquals("1", message.getAuthorId());
+        assertEquals("@Bob is in at 9:00 AM", message.getContent());
+        assertEquals(0, message.getMentionIds().size());
+
+        message = ExportedMessage.parse("{\"id\":501,\"author\":{\"id\":\"1\"}}");
+        assertEquals(501, message.getId());
+        assertNull(message.getChannelId());
+        assertEquals("", message.getContent());
+    } // End of parse()
+
+    /**
+     * Checks that escape sequences and unicode are decoded, both as escapes and as raw characters.
+     */
+    @Test
+    public void escapesAndUnicode() {
+        ExportedMessage message = ExportedMessage.parse("{\"id\": \"1\", \"author\": {\"id\": \"2\"}, \"content\": "
+                + "\"\\\"quoted\\\" \\\\ back\\/slash\\ttab\\nline \\u00e9\\u2713 \u00fc \\ud83d\\ude00\"}");
+        assertEquals("\"quoted\" \\ back/slash\ttab\nline \u00e9\u2713 \u00fc \ud83d\ude00", message.getContent());
+    } // End of escapesAndUnicode()
+
+    /**
+     * Checks that mentions and custom emotes are resolved the way Message#getContent() shows them.
+     */
+    @Test
+    public void resolvesMentions() {
+        ExportedMessage message = ExportedMessage.parse("{\"id\": \"1\", \"author\": {\"id\": \"2\"}, "
+                + "\"content\": \"<:wave:77> <@20> and <@!30> are in at 9:00 AM <a:dance:78>\", \"mentions\": ["
+                + "{\"id\": \"20\", \"username\": \"Bob\"}, {\"id\": \"30\", \"username\": \"Ann \\u00e9\"}]}");
+        assertEquals(Arrays.asList("20", "30"), message.getMentionIds());
+        assertEquals(Arrays.asList("Bob", "Ann \u00e9"), message.getMentionNames());
+        assertEquals(":wave: @Bob and @Ann \u00e9 are in at 9:00 AM :dance:", message.getContent());
+    } // End of resolvesMentions()
+
+    /**
+     * Checks that a line without an id or author is not taken for a message.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNonMessages() {
+        ExportedMessage.parse("{\"id\": \"1\", \"content\": \"@Bob is in\"}");
+    } // End of rejectsNonMessages()
+}
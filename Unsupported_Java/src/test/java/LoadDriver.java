@@ -0,0 +1,291 @@
+import com.mashape.unirest.http.Unirest;
+import net.dv8tion.jda.core.JDA;
+import org.apache.http.HttpHost;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.client.HttpClients;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * LoadDriver runs {@link TimeTracker} itself against a {@link MockDiscordServer} and prints how long its commands take
+ * under rate limit pressure. JDA is pointed at the server: the bot's REST requests are routed to it by the HTTP client
+ * JDA sends them through (see {@link #routeTo(MockDiscordServer)}), and the gateway URL JDA asks for when it logs in is
+ * the server's {@link MockGateway}. Every message is sent to the bot over the gateway, so it goes through
+ * TimeTracker#onGuildMessageReceived (or TimeTracker#onPrivateMessageReceived) and the bot's own history loading,
+ * report calculation, private messages and rate limit handling; a command is done once the server has received
+ * what its user waits for. Values are as follows:<br>
+ * {@link #server} = The {@link MockDiscordServer} the bot runs against.<br>
+ * {@link #channelIds} = The ids of the seeded text channels.<br>
+ * {@link #adminIds} = The user ids of the admins, one per channel.<br>
+ * {@link #memberIds} = The user ids of the members whose clocks are seeded in every channel.
+ * <p>
+ * Scenarios:<br>
+ * clocks = Every member sends a clock without a space before its meridiem at once, each measured until the bot's
+ * warning reaches the member (the ingest queue, TimeTracker#checkForCorrectClock and opening a private channel).<br>
+ * /times cold = Every channel's admin enters '/times MM/dd/yy' for today at once, each measured until every member's
+ * report reaches them; the history of every channel is loaded first.<br>
+ * /times warm = The same commands again, calculated from the loaded indexes.<br>
+ * /clear = Every admin enters '/clear' in their private channel at once, each measured until every message of the
+ * bot in it is deleted.
+ * <p>
+ * Usage: LoadDriver [latency ms] [jitter ms] [bucket limit] [bucket reset ms] [global limit per second] [channels]
+ * [members]
+ */
+class LoadDriver {
+
+    /**
+     * The most milliseconds a command may take before the scenario fails.
+     */
+    private static final long TIMEOUT = 300000;
+
+    /**
+     * The message the bot sends after every member's report.
+     */
+    private static final String SEPARATOR = "--------------------";
+
+    /**
+     * The start of the warning the bot sends for a clock that may be incorrect.
+     */
+    private static final String WARNING = "That clock in/out may be incorrect!";
+
+    /**
+     * The {@link MockDiscordServer} the bot runs against.
+     */
+    private final MockDiscordServer server;
+
+    /**
+     * The ids of the seeded text channels.
+     */
+    private final List<String> channelIds = new ArrayList<>();
+
+    /**
+     * The user ids of the admins, one per channel.
+     */
+    private final List<String> adminIds = new ArrayList<>();
+
+    /**
+     * The user ids of the members whose clocks are seeded in every channel.
+     */
+    private final List<String> memberIds = new ArrayList<>();
+
+    /**
+     * Creates a {@link LoadDriver} for the server.
+     *
+     * @param server The {@link MockDiscordServer} the bot runs against.
+     */
+    LoadDriver(MockDiscordServer server) {
+        this.server = server;
+    } // End of LoadDriver()
+
+    /**
+     * Starts a {@link MockDiscordServer}, logs the bot in to it, and runs the clocks, '/times MM/dd/yy', and '/clear'
+     * scenarios.
+     *
+     * @param args Given arguments from command line: the latency, jitter, bucket limit, bucket reset, global limit,
+     *             channels, and members (see the class usage).
+     */
+    public static void main(String[] args) {
+        int latency = args.length > 0 ? Integer.parseInt(args[0]) : 50;
+        int jitter = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        int limit = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+        long resetAfter = args.length > 3 ? Long.parseLong(args[3]) : 1000;
+        int globalLimit = args.length > 4 ? Integer.parseInt(args[4]) : 20;
+        int channels = args.length > 5 ? Integer.parseInt(args[5]) : 3;
+        int members = args.length > 6 ? Integer.parseInt(args[6]) : 20;
+
+        try {
+            TimeTracker.loadProperties("");
+        } catch (IOException e) {
+            System.out.println("Could not read bot.properties, using default settings! Cause: " + e.getMessage());
+        }
+
+        MockDiscordServer server;
+        try {
+            server = new MockDiscordServer(0, TimeTracker.BOT_NAME, latency, jitter, limit, resetAfter, globalLimit);
+        } catch (IOException e) {
+            System.out.println("Could not start the mock server! Cause: " + e.getMessage());
+            return;
+        }
+        LoadDriver driver = new LoadDriver(server);
+        driver.seed(channels, members, TimeTracker.RETRIEVABLE_MESSAGE_AMOUNT * 100 + 50);
+        server.start();
+        System.out.println("Mock server on port " + server.getPort() + " (" + latency + "+" + jitter + " ms latency, "
+                + limit + " requests per " + resetAfter + " ms per route, " + globalLimit + " per second globally)");
+
+        JDA jda = null;
+        try {
+            routeTo(server);
+            jda = TimeTracker.createBuilder("mock-token", new ClockStore()).buildBlocking();
+            System.out.println("Bot logged in with " + server.getGateway().getReadySessions() + " gateway session.");
+
+            driver.run("clocks", driver::sendClocks);
+            driver.run("/times cold", driver::sendTimes);
+            driver.run("/times warm", driver::sendTimes);
+            driver.run("/clear", driver::clear);
+        } catch (Exception e) {
+            System.out.println("The load test failed! Cause: " + e.getMessage());
+        } finally {
+            if(jda != null)
+                jda.shutdown();
+            server.stop();
+        }
+        System.out.println("Mock server answered " + server.getRequests() + " requests, " + server.getRateLimited()
+                + " of them with 429.");
+    } // End of main()
+
+    /**
+     * Points JDA's REST requests at the server. JDA sends them through Unirest to Discord's API URL, which is a
+     * compile time constant; the route planner of the HTTP client given to Unirest sends every request to the server
+     * instead, keeping its path and headers.
+     *
+     * @param server The {@link MockDiscordServer} to send the requests to.
+     */
+    private static void routeTo(MockDiscordServer server) {
+        HttpHost mock = new HttpHost("127.0.0.1", server.getPort(), "http");
+        Unirest.setHttpClient(HttpClients.custom().setRoutePlanner((target, request, context) -> new HttpRoute(mock))
+                .build());
+    } // End of routeTo()
+
+    /**
+     * Adds the admins and members to the server's guild and seeds every channel's history with their clocks.
+     *
+     * @param channels The amount of channels.
+     * @param members The amount of members.
+     * @param messages The amount of messages in each channel's history.
+     */
+    private void seed(int channels, int members, int messages) {
+        // Ids are 10 apart, since each member's private channel id is their user id plus one.
+        for(int member = 0; member < members; member++) {
+            memberIds.add(Long.toString(200000000000000000L + member * 10L));
+            server.addMember(memberIds.get(member), "Member " + member, false);
+        }
+        for(int channel = 0; channel < channels; channel++) {
+            adminIds.add(Long.toString(400000000000000000L + channel * 10L));
+            server.addMember(adminIds.get(channel), "Admin " + channel, true);
+            channelIds.add(Long.toString(300000000000000000L + channel * 10L));
+            server.seed(channelIds.get(channel), memberIds, messages);
+        }
+    } // End of seed()
+
+    /**
+     * Runs a scenario and prints its command count, the requests it made, and the percentiles of its commands'
+     * latencies.
+     *
+     * @param name The name of the scenario.
+     * @param scenario The scenario.
+     * @throws Exception If the scenario failed.
+     */
+    private void run(String name, Scenario scenario) throws Exception {
+        long requests = server.getRequests();
+        long rateLimited = server.getRateLimited();
+        long start = System.nanoTime();
+        long[] latencies = scenario.run();
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        Arrays.sort(latencies);
+        System.out.println(String.format(
+                "%-12s %4d commands %6d requests %5d 429s %8.2f s   p50 %8.1f ms   p95 %8.1f ms   max %8.1f ms",
+                name, latencies.length, server.getRequests() - requests, server.getRateLimited() - rateLimited,
+                seconds, percentile(latencies, 0.50), percentile(latencies, 0.95), percentile(latencies, 1.0)
+        ));
+    } // End of run()
+
+    /**
+     * Every member sends a clock without a space before its meridiem at once, so the bot warns each of them.
+     *
+     * @return The time (in nanoseconds) from each clock to its warning.
+     * @throws Exception If a warning did not arrive in time.
+     */
+    private long[] sendClocks() throws Exception {
+        long[] sentAt = new long[memberIds.size()];
+        int[] expected = new int[memberIds.size()];
+        for(int member = 0; member < memberIds.size(); member++) {
+            String memberId = memberIds.get(member);
+            expected[member] = server.countPrivateMessages(memberId, WARNING) + 1;
+            sentAt[member] = System.nanoTime();
+            server.send(channelIds.get(member % channelIds.size()), memberId, "<@" + memberId + "> is in at 9:00AM");
+        }
+
+        long[] latencies = new long[memberIds.size()];
+        for(int member = 0; member < memberIds.size(); member++)
+            latencies[member] = server.awaitPrivateMessages(memberIds.get(member), WARNING, expected[member], TIMEOUT)
+                    - sentAt[member];
+        return latencies;
+    } // End of sendClocks()
+
+    /**
+     * Every channel's admin enters '/times MM/dd/yy' for today at once. Each admin gets a report for every admin and
+     * member, since all of them can read every channel.
+     *
+     * @return The time (in nanoseconds) from each command to its last report.
+     * @throws Exception If the reports did not arrive in time.
+     */
+    private long[] sendTimes() throws Exception {
+        String today = LocalDate.now(TimeTracker.getTimeZone()).format(DateTimeFormatter.ofPattern("MM/dd/yy"));
+        int reports = adminIds.size() + memberIds.size();
+        long[] sentAt = new long[adminIds.size()];
+        int[] expected = new int[adminIds.size()];
+        for(int admin = 0; admin < adminIds.size(); admin++) {
+            expected[admin] = server.countPrivateMessages(adminIds.get(admin), SEPARATOR) + reports;
+            sentAt[admin] = System.nanoTime();
+            server.send(channelIds.get(admin), adminIds.get(admin), "/times " + today);
+        }
+
+        long[] latencies = new long[adminIds.size()];
+        for(int admin = 0; admin < adminIds.size(); admin++)
+            latencies[admin] = server.awaitPrivateMessages(adminIds.get(admin), SEPARATOR, expected[admin], TIMEOUT)
+                    - sentAt[admin];
+        return latencies;
+    } // End of sendTimes()
+
+    /**
+     * Every admin enters '/clear' in their private channel at once.
+     *
+     * @return The time (in nanoseconds) from each command to the deletion of the bot's last message.
+     * @throws Exception If the messages were not deleted in time.
+     */
+    private long[] clear() throws Exception {
+        long[] sentAt = new long[adminIds.size()];
+        for(int admin = 0; admin < adminIds.size(); admin++) {
+            sentAt[admin] = System.nanoTime();
+            String adminId = adminIds.get(admin);
+            server.send(MockDiscordServer.getPrivateChannelId(adminId), adminId, "/clear");
+        }
+
+        long[] latencies = new long[adminIds.size()];
+        for(int admin = 0; admin < adminIds.size(); admin++)
+            latencies[admin] = server.awaitCleared(adminIds.get(admin), TIMEOUT) - sentAt[admin];
+        return latencies;
+    } // End of clear()
+
+    /**
+     * @param sorted The latencies (in nanoseconds), sorted.
+     * @param percentile The percentile, from 0 to 1.
+     * @return The latency (in milliseconds) at the percentile, or 0 if there are no latencies.
+     */
+    private static double percentile(long[] sorted, double percentile) {
+        if(sorted.length == 0)
+            return 0;
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    } // End of percentile()
+
+    /**
+     * Scenario is one kind of command whose latencies are measured by {@link #run(String, Scenario)}.
+     */
+    private interface Scenario {
+
+        /**
+         * Sends the commands and waits for the bot to answer them.
+         *
+         * @return The time (in nanoseconds) each command took.
+         * @throws Exception If a command was not answered in time.
+         */
+        long[] run() throws Exception;
+    }
+}
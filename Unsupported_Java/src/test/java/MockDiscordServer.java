@@ -0,0 +1,917 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * MockDiscordServer is a local stand-in for the parts of Discord {@link TimeTracker} uses, so the bot itself can be
+ * load tested without touching Discord (see {@link LoadDriver}). It models one guild with the members added by
+ * {@link #addMember(String, String, boolean)} and the text channels seeded by {@link #seed(String, List, int)}, serves
+ * its REST routes, and hands out a {@link MockGateway} that sends the guild to the bot and the messages of
+ * {@link #send(String, String, String)}. Every message route has its own Discord style rate limit bucket: responses
+ * carry the "X-RateLimit-*" headers, and a request to an empty bucket is answered with "429 Too Many Requests" until
+ * the bucket resets; like Discord, its "Retry-After" header is in whole seconds and the "retry_after" of its body in
+ * milliseconds. Requests to every route together are also limited per second by a global bucket, whose 429s carry
+ * "X-RateLimit-Global". Every response is delayed by the configured latency plus a random jitter. Values are as
+ * follows:<br>
+ * {@link #server} = The {@link HttpServer} answering the requests.<br>
+ * {@link #gateway} = The {@link MockGateway} the bot connects to.<br>
+ * {@link #latency} and {@link #jitter} = The delay (in milliseconds) added to every response.<br>
+ * {@link #limit} and {@link #resetAfter} = The requests each route bucket allows per reset, and its reset time.<br>
+ * {@link #globalLimit} = The requests the {@link #global} bucket allows per second.<br>
+ * {@link #users}, {@link #admins} and {@link #textChannelIds} = The guild's members, administrators and text
+ * channels.<br>
+ * {@link #channels} = The messages of each channel (by channel id), oldest to newest.<br>
+ * {@link #buckets} = The {@link Bucket} of each route.
+ * <p>
+ * Routes (under "/api", with or without a "/v6" style version):<br>
+ * GET /gateway and /gateway/bot (the {@link MockGateway}'s URL)<br>
+ * GET /users/@me (the bot's user, checked by the login)<br>
+ * GET /channels/{id}/messages?limit=&before= (MessageHistory#retrievePast)<br>
+ * POST /channels/{id}/messages (MessageChannel#sendMessage)<br>
+ * DELETE /channels/{id}/messages/{id} (Message#deleteMessage)<br>
+ * POST /users/@me/channels (User#openPrivateChannel)
+ */
+class MockDiscordServer {
+
+    /**
+     * The Discord epoch (first second of 2015) in milliseconds; snowflake timestamps are relative to it.
+     */
+    private static final long DISCORD_EPOCH = 1420070400000L;
+
+    /**
+     * The user id of the mock bot; every message sent through the REST routes is authored by it.
+     */
+    static final String BOT_ID = "100000000000000000";
+
+    /**
+     * The id of the mock guild, which is also the id of its @everyone role.
+     */
+    private static final String GUILD_ID = "600000000000000000";
+
+    /**
+     * The id of the guild's role with the administrator permission.
+     */
+    private static final String ADMIN_ROLE_ID = "600000000000000001";
+
+    /**
+     * The permissions of the @everyone role: Discord's default ones, which let every member read the channels and
+     * their history.
+     */
+    private static final long EVERYONE_PERMISSIONS = 104324161L;
+
+    /**
+     * The administrator permission.
+     */
+    private static final long ADMINISTRATOR = 0x8L;
+
+    /**
+     * The mention tokens of a raw content, for example "&lt;@1234&gt;" or "&lt;@!1234&gt;".
+     */
+    private static final Pattern MENTION = Pattern.compile("<@!?([0-9]+)>");
+
+    /**
+     * The format of message and member timestamps.
+     */
+    private static final DateTimeFormatter TIMESTAMP =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSSSSxxx").withZone(ZoneOffset.UTC);
+
+    /**
+     * The amount of threads answering requests.
+     */
+    private static final int THREADS = 32;
+
+    /**
+     * The {@link HttpServer} answering the requests.
+     */
+    private final HttpServer server;
+
+    /**
+     * The {@link MockGateway} the bot connects to.
+     */
+    private final MockGateway gateway;
+
+    /**
+     * The {@link ExecutorService} the {@link #server} answers requests on.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * The delay (in milliseconds) added to every response.
+     */
+    private final int latency;
+
+    /**
+     * The most random delay (in milliseconds) added on top of the {@link #latency}.
+     */
+    private final int jitter;
+
+    /**
+     * The amount of requests each route bucket allows per reset.
+     */
+    private final int limit;
+
+    /**
+     * How long (in milliseconds) a route bucket takes to reset after its first request.
+     */
+    private final long resetAfter;
+
+    /**
+     * The amount of requests to every route together the {@link #global} bucket allows per second.
+     */
+    private final int globalLimit;
+
+    /**
+     * The {@link Bucket} shared by every route.
+     */
+    private final Bucket global = new Bucket();
+
+    /**
+     * The names of the guild's members (by user id), including the bot.
+     */
+    private final ConcurrentHashMap<String, String> users = new ConcurrentHashMap<>();
+
+    /**
+     * The user ids of the members with the administrator role, including the bot.
+     */
+    private final Set<String> admins = ConcurrentHashMap.newKeySet();
+
+    /**
+     * The ids of the guild's text channels.
+     */
+    private final List<String> textChannelIds = new CopyOnWriteArrayList<>();
+
+    /**
+     * The messages of each channel (by channel id), oldest to newest.
+     */
+    private final ConcurrentHashMap<String, List<Message>> channels = new ConcurrentHashMap<>();
+
+    /**
+     * The {@link System#nanoTime()} each private channel (by channel id) had its last message of the bot deleted at.
+     */
+    private final ConcurrentHashMap<String, Long> clearedAt = new ConcurrentHashMap<>();
+
+    /**
+     * The {@link Bucket} of each route (method, path, and channel id).
+     */
+    private final ConcurrentHashMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * The amount of requests answered.
+     */
+    private final AtomicLong requests = new AtomicLong();
+
+    /**
+     * The amount of requests answered with "429 Too Many Requests".
+     */
+    private final AtomicLong rateLimited = new AtomicLong();
+
+    /**
+     * The last snowflake created, so ids created in the same millisecond still increase.
+     */
+    private final AtomicLong lastId = new AtomicLong();
+
+    /**
+     * Creates a {@link MockDiscordServer} listening on the port. It does not answer requests until {@link #start()}.
+     *
+     * @param port The port to listen on, or 0 for any free port.
+     * @param botName The name of the bot's user.
+     * @param latency The delay (in milliseconds) added to every response.
+     * @param jitter The most random delay (in milliseconds) added on top of the latency.
+     * @param limit The amount of requests each route bucket allows per reset.
+     * @param resetAfter How long (in milliseconds) a route bucket takes to reset after its first request.
+     * @param globalLimit The amount of requests to every route together allowed per second.
+     * @throws IOException If a port could not be opened.
+     */
+    MockDiscordServer(int port, String botName, int latency, int jitter, int limit, long resetAfter, int globalLimit)
+            throws IOException {
+        this.latency = latency;
+        this.jitter = jitter;
+        this.limit = limit;
+        this.resetAfter = resetAfter;
+        this.globalLimit = globalLimit;
+        addMember(BOT_ID, botName, true);
+
+        gateway = new MockGateway(this::buildReady, this::buildGuild);
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        server.createContext("/api/", this::handle);
+        executor = Executors.newFixedThreadPool(THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "MockDiscord-HTTP");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+    }
+
+    /**
+     * Starts answering requests and accepting gateway sessions.
+     */
+    void start() {
+        gateway.start();
+        server.start();
+    } // End of start()
+
+    /**
+     * Stops answering requests and closes the gateway.
+     */
+    void stop() {
+        gateway.stop();
+        server.stop(0);
+        executor.shutdownNow();
+    } // End of stop()
+
+    /**
+     * @return The port the REST routes are answered on.
+     */
+    int getPort() {
+        return server.getAddress().getPort();
+    } // End of getPort()
+
+    /**
+     * @return The {@link MockGateway} the bot connects to.
+     */
+    MockGateway getGateway() { return gateway; }
+
+    /**
+     * Adds a member to the guild. Every member gets a private channel with the bot, opened by
+     * POST /users/@me/channels.
+     *
+     * @param userId The user id of the member.
+     * @param name The name of the member.
+     * @param admin Whether the member has the administrator role.
+     */
+    void addMember(String userId, String name, boolean admin) {
+        users.put(userId, name);
+        if(admin)
+            admins.add(userId);
+        getChannel(getPrivateChannelId(userId));
+    } // End of addMember()
+
+    /**
+     * Adds a text channel to the guild with messages in its history, as if members had sent them one minute apart.
+     * Every message is a clock that mentions its author.
+     *
+     * @param channelId The id of the channel.
+     * @param memberIds The user ids of the members sending the messages, taking turns.
+     * @param amount The amount of messages to add.
+     */
+    void seed(String channelId, List<String> memberIds, int amount) {
+        textChannelIds.add(channelId);
+        List<Message> history = getChannel(channelId);
+        long start = System.currentTimeMillis() - amount * 60000L;
+        synchronized (history) {
+            for(int i = 0; i < amount; i++) {
+                String memberId = memberIds.get(i % memberIds.size());
+                String content = "<@" + memberId + "> is " + (i % 2 == 0 ? "in" : "out") + " at 08:00 AM";
+                history.add(new Message(nextId(start + i * 60000L), memberId, content));
+            }
+        }
+    } // End of seed()
+
+    /**
+     * Adds a message of a member to a channel and sends it to the bot as a MESSAGE_CREATE, as if the member had just
+     * typed it.
+     *
+     * @param channelId The id of the text or private channel.
+     * @param authorId The user id of the member.
+     * @param content The raw content of the message, with mentions as "&lt;@id&gt;".
+     */
+    void send(String channelId, String authorId, String content) {
+        Message message = new Message(nextId(System.currentTimeMillis()), authorId, escape(content));
+        List<Message> history = getChannel(channelId);
+        synchronized (history) {
+            history.add(message);
+        }
+        StringBuilder json = new StringBuilder();
+        appendMessage(json, message, channelId);
+        gateway.dispatch("MESSAGE_CREATE", json.toString());
+    } // End of send()
+
+    /**
+     * @param userId The user id of a member.
+     * @return The id of the member's private channel with the bot.
+     */
+    static String getPrivateChannelId(String userId) {
+        return Long.toString(Long.parseLong(userId) + 1);
+    } // End of getPrivateChannelId()
+
+    /**
+     * @param userId The user id of a member.
+     * @param content The content to look for.
+     * @return The amount of messages the bot sent the member that contain the content.
+     */
+    int countPrivateMessages(String userId, String content) {
+        List<Message> history = getChannel(getPrivateChannelId(userId));
+        synchronized (history) {
+            int count = 0;
+            for(Message message : history)
+                if(message.authorId.equals(BOT_ID) && message.content.contains(content))
+                    count++;
+            return count;
+        }
+    } // End of countPrivateMessages()
+
+    /**
+     * Waits until the bot has sent the member the amount of messages that contain the content.
+     *
+     * @param userId The user id of the member.
+     * @param content The content to look for.
+     * @param count The amount of messages to wait for, counting the ones sent before.
+     * @param timeout The most milliseconds to wait.
+     * @return The {@link System#nanoTime()} the last of the messages was received at.
+     * @throws TimeoutException If the messages were not sent in time.
+     * @throws InterruptedException If the thread was interrupted while waiting.
+     */
+    long awaitPrivateMessages(String userId, String content, int count, long timeout)
+            throws TimeoutException, InterruptedException {
+        long deadline = System.currentTimeMillis() + timeout;
+        List<Message> history = getChannel(getPrivateChannelId(userId));
+        synchronized (history) {
+            while(true) {
+                int found = 0;
+                for(Message message : history)
+                    if(message.authorId.equals(BOT_ID) && message.content.contains(content) && ++found == count)
+                        return message.receivedAt;
+
+                long wait = deadline - System.currentTimeMillis();
+                if(wait <= 0)
+                    throw new TimeoutException(users.get(userId) + " got " + found + " of " + count + " \""
+                            + content + "\" messages.");
+                history.wait(wait);
+            }
+        }
+    } // End of awaitPrivateMessages()
+
+    /**
+     * Waits until every message the bot sent the member has been deleted.
+     *
+     * @param userId The user id of the member.
+     * @param timeout The most milliseconds to wait.
+     * @return The {@link System#nanoTime()} the last of the messages was deleted at.
+     * @throws TimeoutException If the messages were not deleted in time.
+     * @throws InterruptedException If the thread was interrupted while waiting.
+     */
+    long awaitCleared(String userId, long timeout) throws TimeoutException, InterruptedException {
+        long deadline = System.currentTimeMillis() + timeout;
+        String channelId = getPrivateChannelId(userId);
+        List<Message> history = getChannel(channelId);
+        synchronized (history) {
+            while(true) {
+                int left = 0;
+                for(Message message : history)
+                    if(message.authorId.equals(BOT_ID))
+                        left++;
+                if(left == 0)
+                    return clearedAt.getOrDefault(channelId, System.nanoTime());
+
+                long wait = deadline - System.currentTimeMillis();
+                if(wait <= 0)
+                    throw new TimeoutException(users.get(userId) + " still has " + left + " messages of the bot.");
+                history.wait(wait);
+            }
+        }
+    } // End of awaitCleared()
+
+    /**
+     * @return The amount of requests answered.
+     */
+    long getRequests() { return requests.get(); }
+
+    /**
+     * @return The amount of requests answered with "429 Too Many Requests".
+     */
+    long getRateLimited() { return rateLimited.get(); }
+
+    /**
+     * Answers a request to one of the routes.
+     *
+     * @param exchange The request and its response.
+     * @throws IOException If the response could not be sent.
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            requests.incrementAndGet();
+            sleep(latency + (jitter > 0 ? ThreadLocalRandom.current().nextInt(jitter + 1) : 0));
+
+            if(!takeGlobalToken(exchange))
+                return;
+
+            String method = exchange.getRequestMethod();
+            String route = exchange.getRequestURI().getPath().substring("/api/".length()).replaceFirst("^v[0-9]+/", "");
+            String[] path = route.split("/");
+            if(path[0].equals("gateway") && method.equals("GET")) {
+                send(exchange, 200, "{\"url\":\"" + gateway.getUrl() + "\",\"shards\":1}");
+                return;
+            }
+            if(route.equals("users/@me") && method.equals("GET")) {
+                StringBuilder json = new StringBuilder();
+                appendUser(json, BOT_ID);
+                json.insert(json.length() - 1, ",\"verified\":true,\"mfa_enabled\":false");
+                send(exchange, 200, json.toString());
+                return;
+            }
+            if(route.equals("users/@me/channels") && method.equals("POST")) {
+                if(takeToken(exchange, "POST users/@me/channels"))
+                    openPrivateChannel(exchange);
+                return;
+            }
+            if(path.length < 3 || !path[0].equals("channels") || !path[2].equals("messages")) {
+                send(exchange, 404, "{\"message\":\"404: Not Found\",\"code\":0}");
+                return;
+            }
+
+            String channelId = path[1];
+            if(path.length == 3 && method.equals("GET")) {
+                if(takeToken(exchange, "GET channels/" + channelId + "/messages"))
+                    retrieveHistory(exchange, channelId);
+            }
+            else if(path.length == 3 && method.equals("POST")) {
+                if(takeToken(exchange, "POST channels/" + channelId + "/messages"))
+                    sendMessage(exchange, channelId);
+            }
+            else if(path.length == 4 && method.equals("DELETE")) {
+                if(takeToken(exchange, "DELETE channels/" + channelId + "/messages/{id}"))
+                    deleteMessage(exchange, channelId, path[3]);
+            }
+            else
+                send(exchange, 405, "{\"message\":\"405: Method Not Allowed\",\"code\":0}");
+        } finally {
+            exchange.close();
+        }
+    } // End of handle()
+
+    /**
+     * Takes a request from the {@link #global} bucket. A request to the empty bucket is answered with "429 Too Many
+     * Requests" and "X-RateLimit-Global".
+     *
+     * @param exchange The request and its response.
+     * @return Whether the request may be answered.
+     * @throws IOException If the 429 response could not be sent.
+     */
+    private boolean takeGlobalToken(HttpExchange exchange) throws IOException {
+        long now = System.currentTimeMillis();
+        long retryAfter;
+        synchronized (global) {
+            if(now >= global.resetAt) {
+                global.remaining = globalLimit;
+                global.resetAt = now + 1000;
+            }
+            if(global.remaining > 0) {
+                global.remaining--;
+                return true;
+            }
+            retryAfter = global.resetAt - now;
+        }
+
+        rateLimited.incrementAndGet();
+        exchange.getResponseHeaders().set("X-RateLimit-Global", "true");
+        exchange.getResponseHeaders().set("Retry-After", Long.toString((retryAfter + 999) / 1000));
+        send(exchange, 429, "{\"message\":\"You are being rate limited.\",\"retry_after\":" + retryAfter
+                + ",\"global\":true}");
+        return false;
+    } // End of takeGlobalToken()
+
+    /**
+     * Takes a request from the route's {@link Bucket} and sets its "X-RateLimit-*" headers. A request to an empty
+     * bucket is answered with "429 Too Many Requests".
+     *
+     * @param exchange The request and its response.
+     * @param route The route (method, path, and channel id) of the request.
+     * @return Whether the request may be answered.
+     * @throws IOException If the 429 response could not be sent.
+     */
+    private boolean takeToken(HttpExchange exchange, String route) throws IOException {
+        Bucket bucket = buckets.computeIfAbsent(route, k -> new Bucket());
+        long now = System.currentTimeMillis();
+        boolean allowed;
+        int remaining;
+        long resetAt;
+        synchronized (bucket) {
+            if(now >= bucket.resetAt) {
+                bucket.remaining = limit;
+                bucket.resetAt = now + resetAfter;
+            }
+            allowed = bucket.remaining > 0;
+            if(allowed)
+                bucket.remaining--;
+            remaining = bucket.remaining;
+            resetAt = bucket.resetAt;
+        }
+
+        exchange.getResponseHeaders().set("X-RateLimit-Limit", Integer.toString(limit));
+        exchange.getResponseHeaders().set("X-RateLimit-Remaining", Integer.toString(remaining));
+        exchange.getResponseHeaders().set("X-RateLimit-Reset", Long.toString((resetAt + 999) / 1000));
+        exchange.getResponseHeaders().set("X-RateLimit-Reset-After", Double.toString((resetAt - now) / 1000.0));
+        exchange.getResponseHeaders().set("X-RateLimit-Bucket", Integer.toHexString(route.hashCode()));
+        if(allowed)
+            return true;
+
+        rateLimited.incrementAndGet();
+        exchange.getResponseHeaders().set("Retry-After", Long.toString((resetAt - now + 999) / 1000));
+        send(exchange, 429, "{\"message\":\"You are being rate limited.\",\"retry_after\":" + (resetAt - now)
+                + ",\"global\":false}");
+        return false;
+    } // End of takeToken()
+
+    /**
+     * Answers with up to "limit" (at most 100) messages of the channel older than the "before" message id, newest
+     * first.
+     *
+     * @param exchange The request and its response.
+     * @param channelId The id of the channel.
+     * @throws IOException If the response could not be sent.
+     */
+    private void retrieveHistory(HttpExchange exchange, String channelId) throws IOException {
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+        int amount = Math.min(100, Integer.parseInt(query.getOrDefault("limit", "50")));
+        long before = Long.parseLong(query.getOrDefault("before", Long.toString(Long.MAX_VALUE)));
+
+        StringBuilder json = new StringBuilder("[");
+        List<Message> history = getChannel(channelId);
+        synchronized (history) {
+            int count = 0;
+            for(int i = history.size() - 1; i >= 0 && count < amount; i--) {
+                Message message = history.get(i);
+                if(message.id >= before)
+                    continue;
+                if(count++ > 0)
+                    json.append(',');
+                appendMessage(json, message, channelId);
+            }
+        }
+        send(exchange, 200, json.append(']').toString());
+    } // End of retrieveHistory()
+
+    /**
+     * Adds a message from the bot to the channel and answers with it. Waiters of
+     * {@link #awaitPrivateMessages(String, String, int, long)} are woken up.
+     *
+     * @param exchange The request and its response.
+     * @param channelId The id of the channel.
+     * @throws IOException If the response could not be sent.
+     */
+    private void sendMessage(HttpExchange exchange, String channelId) throws IOException {
+        Message message = new Message(nextId(System.currentTimeMillis()), BOT_ID,
+                getStringValue(read(exchange.getRequestBody()), "content"));
+        List<Message> history = getChannel(channelId);
+        synchronized (history) {
+            history.add(message);
+            history.notifyAll();
+        }
+        StringBuilder json = new StringBuilder();
+        appendMessage(json, message, channelId);
+        send(exchange, 200, json.toString());
+    } // End of sendMessage()
+
+    /**
+     * Removes the message from the channel. Waiters of {@link #awaitCleared(String, long)} are woken up.
+     *
+     * @param exchange The request and its response.
+     * @param channelId The id of the channel.
+     * @param messageId The id of the message.
+     * @throws IOException If the response could not be sent.
+     */
+    private void deleteMessage(HttpExchange exchange, String channelId, String messageId) throws IOException {
+        long id = Long.parseLong(messageId);
+        boolean removed;
+        List<Message> history = getChannel(channelId);
+        synchronized (history) {
+            removed = history.removeIf(message -> message.id == id);
+            if(removed) {
+                clearedAt.put(channelId, System.nanoTime());
+                history.notifyAll();
+            }
+        }
+        if(removed)
+            send(exchange, 204, null);
+        else
+            send(exchange, 404, "{\"message\":\"Unknown Message\",\"code\":10008}");
+    } // End of deleteMessage()
+
+    /**
+     * Answers with the private channel of the member in the request's "recipient_id".
+     *
+     * @param exchange The request and its response.
+     * @throws IOException If the response could not be sent.
+     */
+    private void openPrivateChannel(HttpExchange exchange) throws IOException {
+        String recipientId = getStringValue(read(exchange.getRequestBody()), "recipient_id");
+        if(recipientId == null || !users.containsKey(recipientId)) {
+            send(exchange, 400, "{\"message\":\"Unknown User\",\"code\":10013}");
+            return;
+        }
+
+        StringBuilder recipient = new StringBuilder();
+        appendUser(recipient, recipientId);
+        send(exchange, 200, "{\"id\":\"" + getPrivateChannelId(recipientId) + "\",\"type\":1,"
+                + "\"last_message_id\":null,\"recipient\":" + recipient + ",\"recipients\":[" + recipient + "]}");
+    } // End of openPrivateChannel()
+
+    /**
+     * @return The data of the READY event: the bot's user and the guild, which is sent by a GUILD_CREATE after it.
+     */
+    private String buildReady() {
+        StringBuilder json = new StringBuilder("{\"v\":6,\"user\":");
+        appendUser(json, BOT_ID);
+        json.insert(json.length() - 1, ",\"verified\":true,\"mfa_enabled\":false");
+        return json.append(",\"guilds\":[{\"id\":\"").append(GUILD_ID).append("\",\"unavailable\":true}],")
+                .append("\"private_channels\":[],\"relationships\":[],\"presences\":[],\"user_settings\":{},")
+                .append("\"session_id\":\"mock\",\"_trace\":[\"mock\"]}")
+                .toString();
+    } // End of buildReady()
+
+    /**
+     * @return The data of the GUILD_CREATE event: the guild with its roles, members, and text channels.
+     */
+    private String buildGuild() {
+        String now = TIMESTAMP.format(Instant.now());
+        StringBuilder json = new StringBuilder("{\"id\":\"").append(GUILD_ID).append("\",\"name\":\"Mock\",")
+                .append("\"icon\":null,\"splash\":null,\"owner_id\":\"").append(BOT_ID).append("\",")
+                .append("\"region\":\"us-east\",\"afk_channel_id\":null,\"afk_timeout\":300,")
+                .append("\"embed_enabled\":false,\"embed_channel_id\":null,\"verification_level\":0,")
+                .append("\"default_message_notifications\":0,\"explicit_content_filter\":0,\"mfa_level\":0,")
+                .append("\"features\":[],\"emojis\":[],\"presences\":[],\"voice_states\":[],\"large\":false,")
+                .append("\"unavailable\":false,\"joined_at\":\"").append(now).append("\",")
+                .append("\"member_count\":").append(users.size()).append(",\"roles\":[");
+        appendRole(json, GUILD_ID, "@everyone", 0, EVERYONE_PERMISSIONS);
+        json.append(',');
+        appendRole(json, ADMIN_ROLE_ID, "Admin", 1, ADMINISTRATOR);
+
+        json.append("],\"members\":[");
+        boolean first = true;
+        for(String userId : users.keySet()) {
+            if(!first)
+                json.append(',');
+            first = false;
+            json.append("{\"user\":");
+            appendUser(json, userId);
+            json.append(",\"nick\":null,\"roles\":[")
+                    .append(admins.contains(userId) ? "\"" + ADMIN_ROLE_ID + "\"" : "")
+                    .append("],\"joined_at\":\"").append(now).append("\",\"deaf\":false,\"mute\":false}");
+        }
+
+        json.append("],\"channels\":[");
+        for(int i = 0; i < textChannelIds.size(); i++) {
+            if(i > 0)
+                json.append(',');
+            json.append("{\"id\":\"").append(textChannelIds.get(i)).append("\",\"guild_id\":\"").append(GUILD_ID)
+                    .append("\",\"name\":\"clocks-").append(i).append("\",\"type\":0,\"position\":").append(i)
+                    .append(",\"topic\":null,\"last_message_id\":null,\"nsfw\":false,\"permission_overwrites\":[]}");
+        }
+        return json.append("]}").toString();
+    } // End of buildGuild()
+
+    /**
+     * Appends a role object.
+     *
+     * @param json The JSON being built.
+     * @param id The id of the role.
+     * @param name The name of the role.
+     * @param position The position of the role.
+     * @param permissions The permissions of the role.
+     */
+    private static void appendRole(StringBuilder json, String id, String name, int position, long permissions) {
+        json.append("{\"id\":\"").append(id).append("\",\"name\":\"").append(name)
+                .append("\",\"color\":0,\"hoist\":false,\"position\":").append(position)
+                .append(",\"permissions\":").append(permissions).append(",\"managed\":false,\"mentionable\":false}");
+    } // End of appendRole()
+
+    /**
+     * Appends a user object of a member.
+     *
+     * @param json The JSON being built.
+     * @param userId The user id of the member.
+     */
+    private void appendUser(StringBuilder json, String userId) {
+        json.append("{\"id\":\"").append(userId).append("\",\"username\":\"").append(escape(users.get(userId)))
+                .append("\",\"discriminator\":\"0001\",\"avatar\":null,\"bot\":").append(userId.equals(BOT_ID))
+                .append('}');
+    } // End of appendUser()
+
+    /**
+     * Appends a message object. Its mentions are the members whose "&lt;@id&gt;" is in the content.
+     *
+     * @param json The JSON being built.
+     * @param message The message.
+     * @param channelId The id of the channel the message is in.
+     */
+    private void appendMessage(StringBuilder json, Message message, String channelId) {
+        json.append("{\"id\":\"").append(message.id).append("\",\"channel_id\":\"").append(channelId).append('"');
+        if(textChannelIds.contains(channelId))
+            json.append(",\"guild_id\":\"").append(GUILD_ID).append('"');
+        json.append(",\"author\":");
+        appendUser(json, message.authorId);
+        json.append(",\"content\":\"").append(message.content)
+                .append("\",\"timestamp\":\"").append(TIMESTAMP.format(Instant.ofEpochMilli(
+                        (message.id >>> 22) + DISCORD_EPOCH)))
+                .append("\",\"edited_timestamp\":null,\"tts\":false,\"mention_everyone\":false,\"mentions\":[");
+
+        Matcher mention = MENTION.matcher(message.content);
+        List<String> mentioned = new ArrayList<>();
+        while(mention.find())
+            if(users.containsKey(mention.group(1)) && !mentioned.contains(mention.group(1))) {
+                if(!mentioned.isEmpty())
+                    json.append(',');
+                mentioned.add(mention.group(1));
+                appendUser(json, mention.group(1));
+            }
+        json.append("],\"mention_roles\":[],\"attachments\":[],\"embeds\":[],\"pinned\":false,\"type\":0,")
+                .append("\"nonce\":null}");
+    } // End of appendMessage()
+
+    /**
+     * Sends the response.
+     *
+     * @param exchange The request and its response.
+     * @param status The HTTP status code.
+     * @param json The JSON body, or null for no body.
+     * @throws IOException If the response could not be sent.
+     */
+    private static void send(HttpExchange exchange, int status, String json) throws IOException {
+        if(json == null) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    } // End of send()
+
+    /**
+     * Reads a request body.
+     *
+     * @param in The body's {@link InputStream}.
+     * @return The body as text.
+     * @throws IOException If the body could not be read.
+     */
+    private static String read(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while((read = in.read(buffer)) != -1)
+            out.write(buffer, 0, read);
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    } // End of read()
+
+    /**
+     * Finds a string value of a JSON body without decoding it, so it can be sent back as it is.
+     *
+     * @param json The JSON body.
+     * @param key The key of the value.
+     * @return The value, still escaped, or null if the body does not have it.
+     */
+    private static String getStringValue(String json, String key) {
+        Matcher value = Pattern.compile("\"" + key + "\"\\s*:\\s*\"((?:[^\"\\\\]|\\\\.)*)\"").matcher(json);
+        return value.find() ? value.group(1) : null;
+    } // End of getStringValue()
+
+    /**
+     * @param text The text to put in a JSON string.
+     * @return The text with its quotes, backslashes, and control characters escaped.
+     */
+    private static String escape(String text) {
+        StringBuilder escaped = new StringBuilder();
+        for(char c : text.toCharArray()) {
+            if(c == '"' || c == '\\')
+                escaped.append('\\').append(c);
+            else if(c < 0x20)
+                escaped.append(String.format("\\u%04x", (int) c));
+            else
+                escaped.append(c);
+        }
+        return escaped.toString();
+    } // End of escape()
+
+    /**
+     * @param channelId The id of the channel.
+     * @return The channel's messages, creating an empty channel if it does not exist yet.
+     */
+    private List<Message> getChannel(String channelId) {
+        return channels.computeIfAbsent(channelId, k -> new ArrayList<>());
+    } // End of getChannel()
+
+    /**
+     * Creates a snowflake for the time that is newer than every snowflake created before it.
+     *
+     * @param epochMilli The time in epoch milliseconds.
+     * @return The snowflake.
+     */
+    private long nextId(long epochMilli) {
+        long id = (epochMilli - DISCORD_EPOCH) << 22;
+        return lastId.accumulateAndGet(id, (last, next) -> Math.max(last + 1, next));
+    } // End of nextId()
+
+    /**
+     * Splits a query string into its parameters.
+     *
+     * @param query The raw query string, or null.
+     * @return The parameters by name.
+     */
+    private static Map<String, String> parseQuery(String query) {
+        Map<String, String> parameters = new HashMap<>();
+        if(query == null)
+            return parameters;
+        for(String parameter : query.split("&")) {
+            int equals = parameter.indexOf('=');
+            if(equals > 0)
+                parameters.put(parameter.substring(0, equals), parameter.substring(equals + 1));
+        }
+        return parameters;
+    } // End of parseQuery()
+
+    /**
+     * Pauses the request's thread to inject latency.
+     *
+     * @param millis The milliseconds to pause for.
+     */
+    private static void sleep(long millis) {
+        if(millis <= 0)
+            return;
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    } // End of sleep()
+
+    /**
+     * Bucket contains the rate limit state of one route.
+     */
+    private static class Bucket {
+
+        /**
+         * The amount of requests left until the bucket resets.
+         */
+        private int remaining;
+
+        /**
+         * The time (in epoch milliseconds) the bucket resets at.
+         */
+        private long resetAt;
+    }
+
+    /**
+     * Message contains one message of a channel.
+     */
+    private static class Message {
+
+        /**
+         * The snowflake of the message.
+         */
+        private final long id;
+
+        /**
+         * The user id of the message's author.
+         */
+        private final String authorId;
+
+        /**
+         * The raw content of the message, already escaped for a JSON string.
+         */
+        private final String content;
+
+        /**
+         * The {@link System#nanoTime()} the server received the message at.
+         */
+        private final long receivedAt = System.nanoTime();
+
+        /**
+         * Creates a {@link Message}.
+         *
+         * @param id The snowflake of the message.
+         * @param authorId The user id of the message's author.
+         * @param content The raw content of the message, already escaped for a JSON string.
+         */
+        Message(long id, String authorId, String content) {
+            this.id = id;
+            this.authorId = authorId;
+            this.content = content == null ? "" : content;
+        }
+    }
+}
@@ -0,0 +1,360 @@
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * MockGateway is a minimal stand-in for the Discord gateway, a WebSocket server that {@link MockDiscordServer} hands
+ * out as the gateway URL. It speaks just enough of the gateway for JDA to log in and receive messages: every session
+ * gets a HELLO, an IDENTIFY is answered with READY and a GUILD_CREATE for the mock guild, heartbeats are acknowledged,
+ * and {@link #dispatch(String, String)} sends an event (such as MESSAGE_CREATE) to every session. Payloads are sent as
+ * uncompressed text frames. Values are as follows:<br>
+ * {@link #server} = The {@link ServerSocket} sessions connect to.<br>
+ * {@link #ready} and {@link #guildCreate} = Build the READY and GUILD_CREATE data sent after an IDENTIFY.<br>
+ * {@link #sessions} = The connected {@link Session}s.<br>
+ * {@link #sequence} = The sequence number of the last dispatched event.
+ */
+class MockGateway {
+
+    /**
+     * The GUID every WebSocket handshake key is hashed with.
+     */
+    private static final String HANDSHAKE_GUID = "258EAFA5-E914-47DA-95CA-C5AB0DC85B11";
+
+    /**
+     * How often (in milliseconds) sessions are asked to send a heartbeat.
+     */
+    private static final int HEARTBEAT_INTERVAL = 41250;
+
+    /**
+     * The {@link ServerSocket} sessions connect to.
+     */
+    private final ServerSocket server;
+
+    /**
+     * Builds the READY data sent after an IDENTIFY.
+     */
+    private final Supplier<String> ready;
+
+    /**
+     * Builds the GUILD_CREATE data sent after the READY.
+     */
+    private final Supplier<String> guildCreate;
+
+    /**
+     * The connected {@link Session}s.
+     */
+    private final List<Session> sessions = new CopyOnWriteArrayList<>();
+
+    /**
+     * The sequence number of the last dispatched event.
+     */
+    private final AtomicInteger sequence = new AtomicInteger();
+
+    /**
+     * Creates a {@link MockGateway} listening on any free local port. It does not accept sessions until
+     * {@link #start()}.
+     *
+     * @param ready Builds the READY data sent after an IDENTIFY.
+     * @param guildCreate Builds the GUILD_CREATE data sent after the READY.
+     * @throws IOException If the port could not be opened.
+     */
+    MockGateway(Supplier<String> ready, Supplier<String> guildCreate) throws IOException {
+        this.ready = ready;
+        this.guildCreate = guildCreate;
+        this.server = new ServerSocket(0, 50, InetAddress.getByName("127.0.0.1"));
+    }
+
+    /**
+     * Starts accepting sessions.
+     */
+    void start() {
+        Thread acceptor = new Thread(() -> {
+            while(!server.isClosed()) {
+                try {
+                    Session session = new Session(server.accept());
+                    sessions.add(session);
+                    Thread reader = new Thread(session::run, "MockDiscord-Gateway");
+                    reader.setDaemon(true);
+                    reader.start();
+                } catch (IOException e) {
+                    if(!server.isClosed())
+                        System.out.println("Could not accept a gateway session! Cause: " + e.getMessage());
+                }
+            }
+        }, "MockDiscord-Gateway-Accept");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    } // End of start()
+
+    /**
+     * Stops accepting sessions and closes every connected one.
+     */
+    void stop() {
+        try {
+            server.close();
+        } catch (IOException e) {
+            System.out.println("Could not close the gateway! Cause: " + e.getMessage());
+        }
+        for(Session session : sessions)
+            session.close();
+    } // End of stop()
+
+    /**
+     * @return The URL of the gateway, as returned by GET /gateway.
+     */
+    String getUrl() {
+        return "ws://127.0.0.1:" + server.getLocalPort();
+    } // End of getUrl()
+
+    /**
+     * @return The amount of sessions that have sent an IDENTIFY and were sent the READY.
+     */
+    int getReadySessions() {
+        int count = 0;
+        for(Session session : sessions)
+            if(session.identified)
+                count++;
+        return count;
+    } // End of getReadySessions()
+
+    /**
+     * Sends an event to every session that has been sent the READY.
+     *
+     * @param type The event type, for example "MESSAGE_CREATE".
+     * @param data The event data as JSON.
+     */
+    void dispatch(String type, String data) {
+        for(Session session : sessions)
+            if(session.identified)
+                session.dispatch(type, data);
+    } // End of dispatch()
+
+    /**
+     * Session contains one WebSocket connection to the gateway. Values are as follows:<br>
+     * {@link #socket} = The connection.<br>
+     * {@link #out} = The stream frames are written to.<br>
+     * {@link #identified} = Whether the session has sent an IDENTIFY and was sent the READY.
+     */
+    private class Session {
+
+        /**
+         * The connection.
+         */
+        private final Socket socket;
+
+        /**
+         * The stream frames are written to.
+         */
+        private OutputStream out;
+
+        /**
+         * Whether the session has sent an IDENTIFY and was sent the READY.
+         */
+        private volatile boolean identified = false;
+
+        /**
+         * Creates a {@link Session} for the connection.
+         *
+         * @param socket The connection.
+         */
+        Session(Socket socket) {
+            this.socket = socket;
+        }
+
+        /**
+         * Answers the handshake, sends the HELLO, then reads frames until the connection closes.
+         */
+        void run() {
+            try {
+                DataInputStream in = new DataInputStream(socket.getInputStream());
+                out = socket.getOutputStream();
+                if(!handshake(in))
+                    return;
+                send("{\"op\":10,\"d\":{\"heartbeat_interval\":" + HEARTBEAT_INTERVAL + ",\"_trace\":[\"mock\"]}}");
+
+                String payload;
+                while((payload = readPayload(in)) != null)
+                    handle(payload);
+            } catch (IOException e) {
+                if(!socket.isClosed())
+                    System.out.println("Gateway session ended! Cause: " + e.getMessage());
+            } finally {
+                sessions.remove(this);
+                close();
+            }
+        } // End of run()
+
+        /**
+         * Answers a payload sent by the client. Only the IDENTIFY and heartbeat are answered; every other opcode (such
+         * as presence updates) is ignored.
+         *
+         * @param payload The payload as JSON.
+         */
+        private void handle(String payload) {
+            String op = payload.replaceFirst("(?s).*?\"op\"\\s*:\\s*(\\d+).*", "$1");
+            if(op.equals("1"))
+                send("{\"op\":11}");
+            else if(op.equals("2") && !identified) {
+                synchronized (this) {
+                    dispatch("READY", ready.get());
+                    identified = true;
+                    dispatch("GUILD_CREATE", guildCreate.get());
+                }
+            }
+        } // End of handle()
+
+        /**
+         * Sends a dispatch (opcode 0) with the next sequence number.
+         *
+         * @param type The event type.
+         * @param data The event data as JSON.
+         */
+        synchronized void dispatch(String type, String data) {
+            send("{\"op\":0,\"s\":" + sequence.incrementAndGet() + ",\"t\":\"" + type + "\",\"d\":" + data + "}");
+        } // End of dispatch()
+
+        /**
+         * Reads the HTTP upgrade request and answers it with "101 Switching Protocols".
+         *
+         * @param in The stream of the connection.
+         * @return Whether the request was a WebSocket upgrade.
+         * @throws IOException If the handshake could not be read or answered.
+         */
+        private boolean handshake(DataInputStream in) throws IOException {
+            // Read one byte at a time up to the blank line, so no frame after the request is read with it.
+            ByteArrayOutputStream request = new ByteArrayOutputStream();
+            while(!new String(request.toByteArray(), StandardCharsets.ISO_8859_1).endsWith("\r\n\r\n"))
+                request.write(in.readUnsignedByte());
+
+            String key = null;
+            for(String line : new String(request.toByteArray(), StandardCharsets.ISO_8859_1).split("\r\n"))
+                if(line.toLowerCase().startsWith("sec-websocket-key:"))
+                    key = line.substring(line.indexOf(':') + 1).trim();
+            if(key == null)
+                return false;
+
+            String accept;
+            try {
+                byte[] hash = MessageDigest.getInstance("SHA-1")
+                        .digest((key + HANDSHAKE_GUID).getBytes(StandardCharsets.ISO_8859_1));
+                accept = Base64.getEncoder().encodeToString(hash);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IOException(e);
+            }
+            synchronized (this) {
+                out.write(("HTTP/1.1 101 Switching Protocols\r\nUpgrade: websocket\r\nConnection: Upgrade\r\n"
+                        + "Sec-WebSocket-Accept: " + accept + "\r\n\r\n").getBytes(StandardCharsets.ISO_8859_1));
+                out.flush();
+            }
+            return true;
+        } // End of handshake()
+
+        /**
+         * Reads frames until a whole text or binary message is read. Pings are answered with pongs, and a close
+         * frame ends the session.
+         *
+         * @param in The stream of the connection.
+         * @return The message as text, or null once the connection is closed.
+         * @throws IOException If a frame could not be read.
+         */
+        private String readPayload(DataInputStream in) throws IOException {
+            ByteArrayOutputStream message = new ByteArrayOutputStream();
+            while(true) {
+                int first = in.read();
+                if(first < 0)
+                    return null;
+                int second = in.readUnsignedByte();
+                int opcode = first & 0x0F;
+                long length = second & 0x7F;
+                if(length == 126)
+                    length = in.readUnsignedShort();
+                else if(length == 127)
+                    length = in.readLong();
+                byte[] mask = new byte[4];
+                if((second & 0x80) != 0)
+                    in.readFully(mask);
+                byte[] payload = new byte[(int) length];
+                in.readFully(payload);
+                for(int i = 0; i < payload.length; i++)
+                    payload[i] ^= mask[i % 4];
+
+                if(opcode == 0x8) {
+                    writeFrame(0x8, payload);
+                    return null;
+                }
+                if(opcode == 0x9) {
+                    writeFrame(0xA, payload);
+                    continue;
+                }
+                if(opcode == 0xA)
+                    continue;
+
+                message.write(payload);
+                if((first & 0x80) != 0)
+                    return new String(message.toByteArray(), StandardCharsets.UTF_8);
+            }
+        } // End of readPayload()
+
+        /**
+         * Sends a payload as a text frame. A session whose connection broke is closed.
+         *
+         * @param json The payload as JSON.
+         */
+        private void send(String json) {
+            try {
+                writeFrame(0x1, json.getBytes(StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                System.out.println("Could not send a gateway payload! Cause: " + e.getMessage());
+                close();
+            }
+        } // End of send()
+
+        /**
+         * Writes one unmasked frame, as a server does.
+         *
+         * @param opcode The opcode of the frame.
+         * @param payload The payload of the frame.
+         * @throws IOException If the frame could not be written.
+         */
+        private synchronized void writeFrame(int opcode, byte[] payload) throws IOException {
+            out.write(0x80 | opcode);
+            if(payload.length < 126)
+                out.write(payload.length);
+            else if(payload.length <= 0xFFFF) {
+                out.write(126);
+                out.write(payload.length >>> 8);
+                out.write(payload.length);
+            }
+            else {
+                out.write(127);
+                for(int shift = 56; shift >= 0; shift -= 8)
+                    out.write((int) ((long) payload.length >>> shift));
+            }
+            out.write(payload);
+            out.flush();
+        } // End of writeFrame()
+
+        /**
+         * Closes the connection.
+         */
+        void close() {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                System.out.println("Could not close a gateway session! Cause: " + e.getMessage());
+            }
+        } // End of close()
+    }
+}
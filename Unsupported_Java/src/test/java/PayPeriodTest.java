@@ -0,0 +1,129 @@
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Collections;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * PayPeriodTest checks the bucket bounds of {@link PayPeriod}s and how clocks are binned into them.
+ */
+public class PayPeriodTest {
+
+    /**
+     * The timezone the pay periods are in.
+     */
+    private static final ZoneId TIME_ZONE = ZoneId.of("America/New_York");
+
+    /**
+     * Checks that fixed length buckets count weeks from the first day, with a shorter last one.
+     */
+    @Test
+    public void fixedLengthBuckets() {
+        PayPeriod period = new PayPeriod(LocalDate.of(2026, 10, 1), LocalDate.of(2026, 10, 17), TIME_ZONE, false);
+        assertEquals(3, period.getBucketCount());
+        assertBucketStarts(period, "2026-10-01", "2026-10-08", "2026-10-15");
+    } // End of fixedLengthBuckets()
+
+    /**
+     * Checks that calendar week buckets start on Sunday, with partial first and last weeks.
+     */
+    @Test
+    public void calendarWeekBuckets() {
+        // Friday the 16th to Saturday the 31st.
+        PayPeriod period = new PayPeriod(LocalDate.of(2026, 10, 16), LocalDate.of(2026, 10, 31), TIME_ZONE, true);
+        assertEquals(3, period.getBucketCount());
+        assertBucketStarts(period, "2026-10-16", "2026-10-18", "2026-10-25");
+
+        // Starts on a Sunday, so there is no partial first week.
+        period = new PayPeriod(LocalDate.of(2026, 2, 1), LocalDate.of(2026, 2, 15), TIME_ZONE, true);
+        assertEquals(3, period.getBucketCount());
+        assertBucketStarts(period, "2026-02-01", "2026-02-08", "2026-02-15");
+    } // End of calendarWeekBuckets()
+
+    /**
+     * Checks that minutes outside the pay period are not in any bucket, including across a daylight saving change.
+     */
+    @Test
+    public void getBucketBounds() {
+        PayPeriod period = new PayPeriod(LocalDate.of(2026, 10, 26), LocalDate.of(2026, 11, 8), TIME_ZONE, false);
+        assertEquals(-1, period.getBucket(toMinute(LocalDate.of(2026, 10, 26)) - 1));
+        assertEquals(0, period.getBucket(toMinute(LocalDate.of(2026, 10, 26))));
+        assertEquals(0, period.getBucket(toMinute(LocalDate.of(2026, 11, 2)) - 1));
+        assertEquals(1, period.getBucket(toMinute(LocalDate.of(2026, 11, 2))));
+        assertEquals(1, period.getBucket(toMinute(LocalDate.of(2026, 11, 9)) - 1));
+        assertEquals(-1, period.getBucket(toMinute(LocalDate.of(2026, 11, 9))));
+    } // End of getBucketBounds()
+
+    /**
+     * Checks that rows are binned into their buckets in order and rows outside the pay period are left out.
+     */
+    @Test
+    public void binClocks() {
+        PayPeriod period = new PayPeriod(LocalDate.of(2026, 10, 16), LocalDate.of(2026, 10, 31), TIME_ZONE, true);
+        ClockIndex index = new ClockIndex();
+        int before = add(index, LocalDate.of(2026, 10, 15), 23);
+        int first = add(index, LocalDate.of(2026, 10, 16), 0);
+        int saturday = add(index, LocalDate.of(2026, 10, 17), 23);
+        int sunday = add(index, LocalDate.of(2026, 10, 18), 0);
+        int last = add(index, LocalDate.of(2026, 10, 31), 23);
+        int after = add(index, LocalDate.of(2026, 11, 1), 0);
+
+        int[][] binned = period.binClocks(index, new int[] {before, first, saturday, sunday, last, after});
+        assertEquals(3, binned.length);
+        assertArrayEquals(new int[] {first, saturday}, binned[0]);
+        assertArrayEquals(new int[] {sunday}, binned[1]);
+        assertArrayEquals(new int[] {last}, binned[2]);
+    } // End of binClocks()
+
+    /**
+     * Checks that a pay period is only closed once its last day has passed.
+     */
+    @Test
+    public void isClosed() {
+        PayPeriod period = new PayPeriod(LocalDate.of(2026, 10, 1), LocalDate.of(2026, 10, 14), TIME_ZONE, false);
+        assertFalse(period.isClosed(LocalDate.of(2026, 10, 14)));
+        assertTrue(period.isClosed(LocalDate.of(2026, 10, 15)));
+    } // End of isClosed()
+
+    /**
+     * Checks that the buckets start at the passed in days.
+     *
+     * @param period The {@link PayPeriod} to check.
+     * @param starts The first day of each bucket as 'yyyy-MM-dd'.
+     */
+    private static void assertBucketStarts(PayPeriod period, String... starts) {
+        for(int bucket = 0; bucket < starts.length; bucket++) {
+            long minute = toMinute(LocalDate.parse(starts[bucket]));
+            assertEquals(starts[bucket], bucket, period.getBucket(minute));
+            if(bucket > 0)
+                assertEquals(starts[bucket], bucket - 1, period.getBucket(minute - 1));
+        }
+    } // End of assertBucketStarts()
+
+    /**
+     * Adds a clock at the hour of the day to the index.
+     *
+     * @param index The {@link ClockIndex} to add to.
+     * @param day The day of the clock.
+     * @param hour The hour of the clock.
+     * @return The row of the clock.
+     */
+    private static int add(ClockIndex index, LocalDate day, int hour) {
+        long epochMilli = day.atTime(hour, 30).atZone(TIME_ZONE).toInstant().toEpochMilli();
+        return index.add(ClockIndex.toSnowflake(epochMilli), "1", "@Bob is in at 09:30 AM",
+                Collections.singletonList("2"));
+    } // End of add()
+
+    /**
+     * @param day A day.
+     * @return The epoch minute the day starts at.
+     */
+    private static long toMinute(LocalDate day) {
+        return day.atStartOfDay(TIME_ZONE).toEpochSecond() / 60;
+    } // End of toMinute()
+}
@@ -0,0 +1,113 @@
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * PayScheduleTest checks that every {@link PaySchedule} finds the same {@link PayPeriod} for every date in it: fixed
+ * length pay periods from anchors before and after the date, and the month based ones across month and year ends.
+ */
+public class PayScheduleTest {
+
+    /**
+     * The timezone the pay periods are in.
+     */
+    private static final ZoneId TIME_ZONE = ZoneId.of("America/New_York");
+
+    /**
+     * Each case is the schedule, anchor ('yyyy-MM-dd', or null), date, and expected first and last day.
+     */
+    private static final String[][] CASES = {
+            // Anchor before the date.
+            {"BI_WEEKLY", "2026-09-28", "2026-09-28", "2026-09-28", "2026-10-11"},
+            {"BI_WEEKLY", "2026-09-28", "2026-10-11", "2026-09-28", "2026-10-11"},
+            {"BI_WEEKLY", "2026-09-28", "2026-10-12", "2026-10-12", "2026-10-25"},
+            {"BI_WEEKLY", "2026-09-28", "2027-01-03", "2026-12-21", "2027-01-03"},
+            // Anchor after the date.
+            {"BI_WEEKLY", "2027-01-04", "2026-10-05", "2026-09-28", "2026-10-11"},
+            {"BI_WEEKLY", "2026-09-28", "2026-09-27", "2026-09-14", "2026-09-27"},
+            {"BI_WEEKLY", "2026-09-28", "2026-09-14", "2026-09-14", "2026-09-27"},
+            {"WEEKLY", "2026-10-04", "2026-10-10", "2026-10-04", "2026-10-10"},
+            {"WEEKLY", "2026-10-04", "2026-10-03", "2026-09-27", "2026-10-03"},
+            {"CUSTOM 10", "2026-01-01", "2025-12-31", "2025-12-22", "2025-12-31"},
+            {"CUSTOM 10", "2026-01-01", "2026-01-11", "2026-01-11", "2026-01-20"},
+            // Without an anchor, fixed length pay periods start on the date.
+            {"BI_WEEKLY", null, "2026-10-05", "2026-10-05", "2026-10-18"},
+            // Semi-monthly pay periods end on the 15th and the last day of the month.
+            {"SEMI_MONTHLY", null, "2026-02-15", "2026-02-01", "2026-02-15"},
+            {"SEMI_MONTHLY", null, "2026-02-16", "2026-02-16", "2026-02-28"},
+            {"SEMI_MONTHLY", null, "2028-02-29", "2028-02-16", "2028-02-29"},
+            {"SEMI_MONTHLY", "2026-01-07", "2026-12-31", "2026-12-16", "2026-12-31"},
+            // Monthly pay periods run from the anchor day to the day before it.
+            {"MONTHLY", null, "2026-01-31", "2026-01-01", "2026-01-31"},
+            {"MONTHLY 28", null, "2026-03-27", "2026-02-28", "2026-03-27"},
+            {"MONTHLY 28", null, "2026-03-28", "2026-03-28", "2026-04-27"},
+            {"MONTHLY 28", null, "2026-02-28", "2026-02-28", "2026-03-27"},
+            {"MONTHLY 15", null, "2026-01-10", "2025-12-15", "2026-01-14"},
+    };
+
+    /**
+     * Checks every case of {@link #CASES}.
+     */
+    @Test
+    public void getPeriod() {
+        for(String[] c : CASES) {
+            PayPeriod period = PaySchedule.parse(c[0]).getPeriod(toDate(c[1]), toDate(c[2]), TIME_ZONE);
+            String name = c[0] + " anchored on " + c[1] + " for " + c[2];
+            assertEquals(name, toDate(c[3]), period.getStartDate());
+            assertEquals(name, toDate(c[4]), period.getEndDate());
+        }
+    } // End of getPeriod()
+
+    /**
+     * Checks that every day of a pay period finds the pay period, and that the next one starts the day after.
+     */
+    @Test
+    public void everyDayFindsItsPeriod() {
+        for(String schedule : new String[] {"WEEKLY", "BI_WEEKLY", "CUSTOM 9", "SEMI_MONTHLY", "MONTHLY 28"}) {
+            PaySchedule paySchedule = PaySchedule.parse(schedule);
+            LocalDate anchor = LocalDate.of(2026, 3, 5);
+            PayPeriod period = paySchedule.getPeriod(anchor, LocalDate.of(2025, 12, 20), TIME_ZONE);
+            for(int i = 0; i < 8; i++) {
+                for(LocalDate day = period.getStartDate(); !day.isAfter(period.getEndDate()); day = day.plusDays(1))
+                    assertEquals(schedule + " " + day, period.getStartDate(),
+                            paySchedule.getPeriod(anchor, day, TIME_ZONE).getStartDate());
+
+                PayPeriod next = paySchedule.getNext(period, TIME_ZONE);
+                assertEquals(schedule, period.getEndDate().plusDays(1), next.getStartDate());
+                period = next;
+            }
+        }
+    } // End of everyDayFindsItsPeriod()
+
+    /**
+     * Checks that only fixed length schedules need an anchor.
+     */
+    @Test
+    public void isAnchored() {
+        assertFalse(PaySchedule.biWeekly().isAnchored(null));
+        assertTrue(PaySchedule.biWeekly().isAnchored(LocalDate.of(2026, 1, 1)));
+        assertTrue(PaySchedule.parse("SEMI_MONTHLY").isAnchored(null));
+        assertTrue(PaySchedule.parse("MONTHLY 5").isAnchored(null));
+    } // End of isAnchored()
+
+    /**
+     * Checks that a monthly pay period can not start on a day some months do not have.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void monthlyAfterDay28() {
+        PaySchedule.parse("MONTHLY 29");
+    } // End of monthlyAfterDay28()
+
+    /**
+     * @param date The date as 'yyyy-MM-dd', or null.
+     * @return The {@link LocalDate}, or null.
+     */
+    private static LocalDate toDate(String date) {
+        return date == null ? null : LocalDate.parse(date);
+    } // End of toDate()
+}